@@ -0,0 +1,61 @@
+package materialCounter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading the catalog, by parsing the info files, by reading the
+ * compiled catalog, and by building it from the tables compiled into the
+ * program
+ *
+ * @author Adam Cooper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class CatalogBenchmark {
+
+    //fields
+    private String directory;
+    private Path compiled;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        this.directory = MaterialCatalog.getResourceDirectory();
+        this.compiled = Files.createTempFile("catalog", ".bin");
+        BinaryCatalog.write(MaterialCatalog.get(), this.compiled);
+    }
+
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.compiled);
+    }
+
+
+    @Benchmark
+    public MaterialCatalog parseInfoFiles() {
+        return MaterialCatalog.parse(this.directory, new ArrayList<>());
+    }
+
+
+    @Benchmark
+    public MaterialCatalog readCompiled() {
+        return BinaryCatalog.read(this.compiled);
+    }
+
+
+    @Benchmark
+    public MaterialCatalog buildBuiltIn() {
+        return MaterialCatalog.builtIn();
+    }
+}
@@ -0,0 +1,37 @@
+package materialCounter;
+
+import materialCounter.Room.FurnitureType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building each type of furniture
+ *
+ * @author Adam Cooper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(3)
+public class FurnitureBenchmark {
+
+    //fields
+    @Param
+    public FurnitureType type;
+    private MaterialCatalog catalog;
+
+
+    @Setup
+    public void setUp() {
+        this.catalog = MaterialCatalog.get();
+    }
+
+
+    @Benchmark
+    public Room.Furniture construct() {
+        return new Room.Furniture(this.type, 1, this.catalog);
+    }
+}
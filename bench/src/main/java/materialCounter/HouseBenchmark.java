@@ -0,0 +1,72 @@
+package materialCounter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building and describing a fully loaded manor, and tallying
+ * material vectors
+ *
+ * @author Adam Cooper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class HouseBenchmark {
+
+    //fields
+    static final String FULL_MANOR = "location=Windstad_Manor layout=manor"
+            + " rooms=Cellar,Cellar_Smithing,Cellar_Safes,Cellar_Religious,Enchanter_Tower,Trophy_Room,Kitchen"
+            + " main_hall=Alchemy_Lab,Arcane_Enchanter"
+            + " shrines=Shrine_of_Akatosh,Shrine_of_Arkay,Shrine_of_Dibella,Shrine_of_Julianos,Shrine_of_Kynareth,"
+            + "Shrine_of_Mara,Shrine_of_Stendarr,Shrine_of_Talos,Shrine_of_Zenithar"
+            + " trophies=Trophy_Bear,Trophy_Dragon_Skull,Trophy_Troll,Trophy_Goat,Trophy_Mudcrab,Trophy_Skeever,Trophy_Spriggan"
+            + " outside=Animal_Pen,Garden,Stable,Fish_Hatchery"
+            + " expenses=Bard,Carriage,Cow,Chicken:3,Horse";
+    private HouseSpec spec;
+    private House house;
+    private int[][] vectors;
+    private int[] tracker;
+
+
+    @Setup
+    public void setUp() {
+        this.spec = HouseSpec.parse(FULL_MANOR);
+        this.house = new House(this.spec);
+        this.vectors = this.house.getRooms().stream().map(Room::getTotalMaterialVector).toArray(int[][]::new);
+        this.tracker = new int[MaterialCatalog.get().materialCount()];
+    }
+
+
+    @Benchmark
+    public House construct() {
+        return new House(this.spec);
+    }
+
+
+    @Benchmark
+    public String houseToString() {
+        return this.house.toString();
+    }
+
+
+    @Benchmark
+    public int[] getTotalMaterialVector() {
+        return this.house.getTotalMaterialVector();
+    }
+
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void tally(Blackhole blackhole) {
+        for (int[] vector : this.vectors) {
+            MaterialCounter.tally(vector, 1, this.tracker);
+        }
+        blackhole.consume(this.tracker);
+    }
+}
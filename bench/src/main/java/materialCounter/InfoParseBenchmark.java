@@ -0,0 +1,110 @@
+package materialCounter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks reading info files 100 times the size of the real ones, which
+ * are the real ones repeated. Every line is split into tokens and every
+ * amount parsed, once the way the info files used to be read, with Scanner,
+ * String.split() and Room.fixSplit(), and once with {@link InfoTokenizer}.
+ * The whole catalog is also parsed from the larger files
+ *
+ * @author Adam Cooper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class InfoParseBenchmark {
+
+    //fields
+    private static final int COPIES = 100;
+    private Path directory;
+    private String rooms;
+    private ByteBuffer roomBytes;
+    private InfoTokenizer.Symbols names;
+    private HashMap<String, Integer> ids;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("catalog");
+        for (String file : new String[]{MaterialCatalog.ROOM_FILE, MaterialCatalog.FURNITURE_FILE}) {
+            byte[] info = Files.readAllBytes(Paths.get(MaterialCatalog.getResourceDirectory(), file));
+            ByteBuffer copies = ByteBuffer.allocate(COPIES * info.length);
+            for (int i = 0; i < COPIES; i++) {
+                copies.put(info);
+            }
+            Files.write(this.directory.resolve(file), copies.array());
+        }
+        byte[] rooms = Files.readAllBytes(this.directory.resolve(MaterialCatalog.ROOM_FILE));
+        this.rooms = new String(rooms);
+        this.roomBytes = ByteBuffer.wrap(rooms);
+        this.names = new InfoTokenizer.Symbols(64);
+        this.ids = new HashMap<>();
+        for (int id = 0; id < MaterialCatalog.get().materialCount(); id++) {
+            this.names.add(MaterialCatalog.get().materialName(id));
+            this.ids.put(MaterialCatalog.get().materialName(id), id);
+        }
+    }
+
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+
+    @Benchmark
+    public void splitLines(Blackhole hole) {
+        Scanner scan = new Scanner(this.rooms);
+        while (scan.hasNextLine()) {
+            String line = scan.nextLine();
+            if (line.trim().isEmpty() || line.startsWith(MaterialCatalog.ROOM_TYPE_NOTATOR)) {
+                hole.consume(line.trim().replaceFirst(MaterialCatalog.ROOM_TYPE_NOTATOR, ""));
+                continue;
+            }
+            String[] tokens = Room.fixSplit(line.trim().replaceFirst(MaterialCatalog.FURNITURE_TYPE_NOTATOR, " ").split(" "));
+            hole.consume(this.ids.get(tokens[0]));
+            hole.consume(tokens.length >= 2 ? Integer.parseInt(tokens[1]) : 1);
+        }
+    }
+
+
+    @Benchmark
+    public void tokenize(Blackhole hole) {
+        InfoTokenizer tokens = new InfoTokenizer(this.roomBytes);
+        while (tokens.nextLine()) {
+            if (!tokens.nextToken() || tokens.skipNotator(MaterialCatalog.ROOM_TYPE_NOTATOR.charAt(0))) {
+                hole.consume(tokens.hasToken());
+                continue;
+            }
+            tokens.skipNotator(MaterialCatalog.FURNITURE_TYPE_NOTATOR.charAt(0));
+            hole.consume(tokens.find(this.names));
+            hole.consume(tokens.nextToken() ? tokens.intToken() : 1);
+        }
+    }
+
+
+    @Benchmark
+    public MaterialCatalog parseCatalog() {
+        return MaterialCatalog.parse(this.directory.toString(), new ArrayList<>());
+    }
+}
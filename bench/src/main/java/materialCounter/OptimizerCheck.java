@@ -0,0 +1,91 @@
+package materialCounter;
+
+import materialCounter.House.Location;
+import materialCounter.Room.FurnitureType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that cutting branches off in {@link BudgetOptimizer} never changes
+ * which plans are found. Asking for more plans than can be built keeps every
+ * plan, so nothing is ever cut off, and the plans found when asking for a
+ * few must be the first few of those, in the same order, down to which of
+ * the plans worth the same are kept. Only the rooms, one shrine and one
+ * expense are worth anything, so there are few enough plans to keep every
+ * one of them, and many of them are worth the same. Also checks that asking
+ * for fewer than 1 plan is refused
+ *
+ * @author Adam Cooper
+ */
+public class OptimizerCheck {
+
+    /**
+     * Runs the checks, exiting with 1 if any of them fail
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        MaterialCatalog catalog = MaterialCatalog.get();
+        Map<Enum<?>, Double> weights = new HashMap<>();
+        for (FurnitureType type : FurnitureType.values()) {
+            weights.put(type, 0.0);
+        }
+        for (House.Expense expense : House.Expense.values()) {
+            weights.put(expense, 0.0);
+        }
+        weights.put(FurnitureType.Shrine_of_Talos, 2.0);
+        weights.put(House.Expense.values()[0], 1.0);
+        // a few of every material, so only some of the rooms can be built
+        int[] few = new int[catalog.materialCount()];
+        Arrays.fill(few, 400);
+        int failures = 0;
+        for (Location location : new Location[]{Location.Lakeview_Manor, Location.Windstad_Manor, Location.Heljarchen_Hall}) {
+            for (int[] onHand : new int[][]{null, few}) {
+                long budget = location.cost() + 1500;
+                BudgetOptimizer optimizer = new BudgetOptimizer(location, catalog, weights);
+                List<BudgetOptimizer.Plan> every = optimizer.optimize(budget, onHand, Integer.MAX_VALUE);
+                for (int plans : new int[]{1, 2, 5, 20}) {
+                    List<BudgetOptimizer.Plan> best = optimizer.optimize(budget, onHand, plans);
+                    String expected = describe(every.subList(0, Math.min(plans, every.size())));
+                    if (!describe(best).equals(expected)) {
+                        System.err.println(location.name() + (onHand == null ? "" : " with a few materials") + ", " + plans + " plans:");
+                        System.err.println("    expected " + expected);
+                        System.err.println("    found    " + describe(best));
+                        failures++;
+                    }
+                }
+                System.out.println(location.name() + (onHand == null ? "" : " with a few materials") + ": " + every.size() + " plans");
+            }
+        }
+        BudgetOptimizer optimizer = new BudgetOptimizer(Location.Windstad_Manor, catalog, weights);
+        for (int plans : new int[]{0, -3}) {
+            try {
+                optimizer.optimize(20000, null, plans);
+                System.err.println("Asking for " + plans + " plans wasn\'t refused");
+                failures++;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Asking for " + plans + " plans: " + e.getMessage());
+            }
+        }
+        if (failures > 0) {
+            System.err.println(failures + (failures == 1 ? " check" : " checks") + " failed");
+            System.exit(1);
+        }
+        System.out.println("All checks passed");
+    }
+
+
+    /**
+     * @return What each plan is worth and its spec, in order
+     */
+    private static String describe(List<BudgetOptimizer.Plan> plans) {
+        StringBuilder sb = new StringBuilder();
+        for (BudgetOptimizer.Plan plan : plans) {
+            sb.append('[').append(plan.value()).append(' ').append(plan.spec()).append(']');
+        }
+        return new String(sb);
+    }
+}
@@ -0,0 +1,52 @@
+package materialCounter;
+
+import materialCounter.Room.RoomType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building each type of room and reading its totals
+ *
+ * @author Adam Cooper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class RoomBenchmark {
+
+    //fields
+    @Param
+    public RoomType type;
+    private MaterialCatalog catalog;
+    private Room room;
+
+
+    @Setup
+    public void setUp() {
+        this.catalog = MaterialCatalog.get();
+        this.room = new Room(this.type, this.catalog);
+    }
+
+
+    @Benchmark
+    public Room construct() {
+        return new Room(this.type, this.catalog);
+    }
+
+
+    @Benchmark
+    public HashMap<String, Integer> getTotalMaterials() {
+        return this.room.getTotalMaterials();
+    }
+
+
+    @Benchmark
+    public int[] getTotalMaterialVector() {
+        return this.room.getTotalMaterialVector();
+    }
+}
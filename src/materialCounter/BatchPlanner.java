@@ -0,0 +1,184 @@
+package materialCounter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Plans many houses at once, one spec per line of a batch file. <br>
+ * The batch is read a block of lines at a time. Every plan in a block is
+ * built and tallied on its own, so the plans are spread across all cores,
+ * and the block is then written out in order before the next one is read,
+ * so a batch of any size is planned in the same amount of memory. The
+ * shopping list for a block is summed with a separate vector per thread, so
+ * no thread ever waits on another's totals
+ *
+ * @author Adam Cooper
+ */
+final class BatchPlanner {
+
+    //fields
+    static final int BLOCK_SIZE = 4096;
+    private final PlanWriter out;
+    private final Metrics.Counted written;
+    private final MaterialCatalog catalog;
+    private final List<String> errors;
+    private final int[] shoppingList;
+    private int plans;
+
+
+    /**
+     * Constructor <br>
+     * Every plan in the batch is built from the same catalog, so the
+     * shopping list adds up even if the info files are reloaded part way
+     * through the batch
+     *
+     * @param out     Where to write the totals of each plan
+     * @param written Where out writes to, to count the characters of each plan
+     * @param catalog The catalog to build every plan from
+     * @param errors  A list to add a message to for every invalid spec
+     */
+    BatchPlanner(PlanWriter out, Metrics.Counted written, MaterialCatalog catalog, List<String> errors) {
+        this.out = out;
+        this.written = written;
+        this.catalog = catalog;
+        this.errors = errors;
+        this.shoppingList = new int[catalog.materialCount()];
+        this.plans = 0;
+    }
+
+
+    /**
+     * Plans every spec in a batch and writes the totals of each one. Blank
+     * lines and lines that are only a comment are skipped, and invalid specs
+     * are skipped after adding an error for them
+     *
+     * @param in The batch, one spec per line
+     * @throws IOException if the batch can't be read or the totals can't be written
+     */
+    void plan(BufferedReader in) throws IOException {
+        List<String> block = new ArrayList<>(BLOCK_SIZE);
+        int firstLine = 1;
+        String line;
+        while ((line = in.readLine()) != null) {
+            block.add(line);
+            if (block.size() == BLOCK_SIZE) {
+                this.planBlock(block, firstLine);
+                firstLine += block.size();
+                block.clear();
+            }
+        }
+        this.planBlock(block, firstLine);
+    }
+
+
+    /**
+     * Plans a block of lines in parallel, then writes them out in order
+     *
+     * @param block     The lines to plan
+     * @param firstLine The line number of the first line in the block
+     */
+    private void planBlock(List<String> block, int firstLine) throws IOException {
+        Plan[] plans = IntStream.range(0, block.size()).parallel()
+                .mapToObj(i -> Plan.of(block.get(i), firstLine + i, this.catalog))
+                .toArray(Plan[]::new);
+        List<int[]> totals = new ArrayList<>(plans.length);
+        for (Plan plan : plans) {
+            if (plan == null) {
+                continue;
+            }
+            if (plan.error != null) {
+                this.errors.add("line " + plan.line + ": " + plan.error);
+                continue;
+            }
+            Metrics.RenderEvent event = new Metrics.RenderEvent();
+            event.begin();
+            long start = System.nanoTime();
+            long before = this.written.characters();
+            this.out.writePlan(++this.plans, plan.line, plan.house, plan.totals);
+            Metrics.rendered(event, "plan", start, this.written.characters() - before);
+            totals.add(plan.totals);
+        }
+        MaterialCounter.tally(sum(totals.toArray(new int[0][]), this.shoppingList.length), 1, this.shoppingList);
+    }
+
+
+    /**
+     * Writes the shopping list for every plan in the batch
+     *
+     * @throws IOException if the shopping list can't be written
+     */
+    void finish() throws IOException {
+        this.out.writeShoppingList(this.plans, this.shoppingList);
+    }
+
+
+    /**
+     * @return The number of plans made so far
+     */
+    int size() {
+        return this.plans;
+    }
+
+
+    /**
+     * Adds up the totals of many plans. Each thread tallies into its own
+     * vector and the vectors are only combined once their threads are done
+     *
+     * @param totals The totals of each plan, indexed by material id
+     * @param length The length of every material vector
+     * @return The amounts of each material needed for every plan
+     */
+    static int[] sum(int[][] totals, int length) {
+        return Arrays.stream(totals).parallel().collect(
+                () -> new int[length],
+                (tracker, amounts) -> MaterialCounter.tally(amounts, 1, tracker),
+                (tracker, other) -> MaterialCounter.tally(other, 1, tracker));
+    }
+
+
+    /**
+     * A single line of a batch, planned
+     */
+    private static final class Plan {
+
+        //fields
+        final int line;
+        final House house;
+        final int[] totals;
+        final String error;
+
+
+        private Plan(int line, House house, int[] totals, String error) {
+            this.line = line;
+            this.house = house;
+            this.totals = totals;
+            this.error = error;
+        }
+
+
+        /**
+         * Parses and builds the house on a line of a batch
+         *
+         * @param text    The line
+         * @param line    The line number
+         * @param catalog The catalog to build the house from
+         * @return The plan, or null if there is nothing on the line
+         */
+        static Plan of(String text, int line, MaterialCatalog catalog) {
+            int comment = text.indexOf(HouseSpec.COMMENT);
+            if ((comment >= 0 ? text.substring(0, comment) : text).isBlank()) {
+                return null;
+            }
+            try {
+                House house = new House(HouseSpec.parse(text), catalog);
+                return new Plan(line, house, house.getTotalMaterialVector(), null);
+            } catch (IllegalArgumentException e) {
+                return new Plan(line, null, null, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package materialCounter;
+
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads and writes the compiled form of the catalog. <br>
+ * The file is laid out as a header, one fixed-width record per room type and
+ * per furniture type (indexed by ordinal), a pool of (id, amount) pairs the
+ * records point into, and finally a table of every material name:
+ * <pre>
+ * int magic, version, fingerprint, materialCount, roomCount, furnitureCount, pairCount
+ * roomCount      * { int materialStart, materialCount, furnitureStart, furnitureCount }
+ * furnitureCount * { int materialStart, materialCount }
+ * pairCount      * { int id, amount }
+ * materialCount  * { short length, byte[length] utf8 }
+ * </pre>
+ * A start of -1 marks a type that isn't in the catalog.
+ *
+ * @author Adam Cooper
+ */
+final class BinaryCatalog {
+
+    //fields
+    static final String CATALOG_FILE = "catalog.bin";
+    private static final int MAGIC = 0x48464354; // "HFCT"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 7;
+    private static final int ROOM_RECORD_INTS = 4;
+    private static final int FURNITURE_RECORD_INTS = 2;
+
+
+    private BinaryCatalog() {
+    }
+
+
+    /**
+     * Tells if the compiled catalog in a directory exists and is at least as
+     * new as both info files
+     *
+     * @param directory The directory containing the info files
+     * @return True if the compiled catalog can be used, false otherwise
+     */
+    static boolean isCurrent(String directory) {
+        try {
+            long compiled = Files.getLastModifiedTime(Paths.get(directory, CATALOG_FILE)).toMillis();
+            return compiled >= Files.getLastModifiedTime(Paths.get(directory, MaterialCatalog.ROOM_FILE)).toMillis()
+                    && compiled >= Files.getLastModifiedTime(Paths.get(directory, MaterialCatalog.FURNITURE_FILE)).toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Identifies the room and furniture types the catalog was compiled
+     * against, so a catalog compiled before those enums changed isn't used
+     *
+     * @return A hash of every room and furniture type name, in order
+     */
+    static int fingerprint() {
+        int hash = 1;
+        for (RoomType type : RoomType.values()) {
+            hash = 31 * hash + type.name().hashCode();
+        }
+        for (FurnitureType type : FurnitureType.values()) {
+            hash = 31 * hash + type.name().hashCode();
+        }
+        return hash;
+    }
+
+
+    /**
+     * Memory-maps a compiled catalog and builds a MaterialCatalog from it
+     *
+     * @param file The compiled catalog
+     * @return The catalog, or null if the file can't be read or was compiled
+     * by a different version of the program
+     */
+    static MaterialCatalog read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != fingerprint()) {
+                return null;
+            }
+            int materialCount = buffer.getInt();
+            int roomCount = buffer.getInt();
+            int furnitureCount = buffer.getInt();
+            int pairCount = buffer.getInt();
+            if (roomCount != RoomType.values().length || furnitureCount != FurnitureType.values().length) {
+                return null;
+            }
+            int pairBase = (HEADER_INTS + roomCount * ROOM_RECORD_INTS + furnitureCount * FURNITURE_RECORD_INTS) * Integer.BYTES;
+            long pairEnd = pairBase + (long) pairCount * 2 * Integer.BYTES;
+            // a damaged file can hold counts that are negative or larger than
+            // the file, which must be caught before anything is allocated
+            if (materialCount < 0 || pairCount < 0 || pairEnd + (long) materialCount * Short.BYTES > buffer.limit()) {
+                return null;
+            }
+            // material names sit after the pairs
+            buffer.position((int) pairEnd);
+            String[] names = new String[materialCount];
+            for (int i = 0; i < materialCount; i++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(bytes);
+                names[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            buffer.position(HEADER_INTS * Integer.BYTES);
+            EnumMap<RoomType, MaterialCatalog.RoomInfo> rooms = new EnumMap<>(RoomType.class);
+            for (RoomType type : RoomType.values()) {
+                int materialStart = buffer.getInt(), materials = buffer.getInt();
+                int furnitureStart = buffer.getInt(), pieces = buffer.getInt();
+                if (materialStart < 0) {
+                    continue;
+                }
+                if (pieces < 0 || pieces > pairCount) {
+                    return null;
+                }
+                int[] roomMaterials = readVector(buffer, pairBase, materialStart, materials, materialCount);
+                List<Map.Entry<FurnitureType, Integer>> furniture = new ArrayList<>(pieces);
+                for (int i = 0; i < pieces; i++) {
+                    int pair = pairBase + (furnitureStart + i) * 2 * Integer.BYTES;
+                    furniture.add(Map.entry(FurnitureType.values()[buffer.getInt(pair)], buffer.getInt(pair + Integer.BYTES)));
+                }
+                rooms.put(type, new MaterialCatalog.RoomInfo(roomMaterials, furniture));
+            }
+            EnumMap<FurnitureType, int[]> recipes = new EnumMap<>(FurnitureType.class);
+            for (FurnitureType type : FurnitureType.values()) {
+                int materialStart = buffer.getInt(), materials = buffer.getInt();
+                if (materialStart >= 0) {
+                    recipes.put(type, readVector(buffer, pairBase, materialStart, materials, materialCount));
+                }
+            }
+            return new MaterialCatalog(names, rooms, recipes);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Reads a run of (material id, amount) pairs into a material vector
+     *
+     * @param buffer        The mapped catalog
+     * @param pairBase      The offset of the first pair in the file
+     * @param start         The index of the first pair to read
+     * @param count         The number of pairs to read
+     * @param materialCount The length of the vector
+     * @return Amounts indexed by material id
+     */
+    private static int[] readVector(ByteBuffer buffer, int pairBase, int start, int count, int materialCount) {
+        int[] vector = new int[materialCount];
+        for (int i = 0; i < count; i++) {
+            int pair = pairBase + (start + i) * 2 * Integer.BYTES;
+            vector[buffer.getInt(pair)] = buffer.getInt(pair + Integer.BYTES);
+        }
+        return vector;
+    }
+
+
+    /**
+     * Writes a catalog out in compiled form
+     *
+     * @param catalog The catalog to write
+     * @param file    The file to write it to
+     * @throws IOException if the file can't be written
+     */
+    static void write(MaterialCatalog catalog, Path file) throws IOException {
+        List<int[]> pairs = new ArrayList<>();
+        int roomCount = RoomType.values().length, furnitureCount = FurnitureType.values().length;
+        ByteBuffer records = ByteBuffer.allocate((roomCount * ROOM_RECORD_INTS + furnitureCount * FURNITURE_RECORD_INTS) * Integer.BYTES);
+
+        for (RoomType type : RoomType.values()) {
+            MaterialCatalog.RoomInfo info = catalog.room(type);
+            if (info == null) {
+                records.putInt(-1).putInt(0).putInt(-1).putInt(0);
+                continue;
+            }
+            records.putInt(pairs.size()).putInt(addVector(info.materials(), pairs));
+            records.putInt(pairs.size()).putInt(info.furniture().size());
+            for (Map.Entry<FurnitureType, Integer> piece : info.furniture()) {
+                pairs.add(new int[]{piece.getKey().ordinal(), piece.getValue()});
+            }
+        }
+        for (FurnitureType type : FurnitureType.values()) {
+            MaterialCatalog.Recipe recipe = catalog.recipe(type);
+            if (recipe == null) {
+                records.putInt(-1).putInt(0);
+                continue;
+            }
+            records.putInt(pairs.size()).putInt(addVector(recipe.vector(), pairs));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint());
+            out.writeInt(catalog.materialCount());
+            out.writeInt(roomCount);
+            out.writeInt(furnitureCount);
+            out.writeInt(pairs.size());
+            out.write(records.array());
+            for (int[] pair : pairs) {
+                out.writeInt(pair[0]);
+                out.writeInt(pair[1]);
+            }
+            for (int id = 0; id < catalog.materialCount(); id++) {
+                byte[] bytes = catalog.materialName(id).getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+
+    /**
+     * Adds a (material id, amount) pair for each material in a vector
+     *
+     * @return The number of pairs added
+     */
+    private static int addVector(int[] vector, List<int[]> pairs) {
+        int added = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                pairs.add(new int[]{id, vector[id]});
+                added++;
+            }
+        }
+        return added;
+    }
+}
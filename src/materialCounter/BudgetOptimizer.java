@@ -0,0 +1,497 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Picks the optional parts of a homestead worth the most to the player that
+ * can be built with the gold and materials they have. <br>
+ * Every optional room, piece of furniture and expense is worth a weight set
+ * by the player, 1 unless they say otherwise, and the rooms every homestead
+ * has are worth nothing. The choices are made one after another: the layout,
+ * the cellar, the wings, then everything that goes in them. A branch is cut
+ * off as soon as it can't beat the plans kept so far, judged by adding to
+ * what it is worth the most that every choice left could add by itself with
+ * what is left over, so only a small part of every configuration is ever
+ * looked at. Among plans worth the same, the ones found first are kept and
+ * listed first, whatever they cost, so a branch that could at best match
+ * the worst plan kept is cut off too
+ *
+ * @author Adam Cooper
+ */
+final class BudgetOptimizer {
+
+    //fields
+    static final int DEFAULT_PLANS = 5;
+    private final Location location;
+    private final MaterialCatalog catalog;
+    private final Decision[] decisions;
+    // the decision that can build each room, indexed by room type ordinal
+    private final int[] decider;
+    private final int[] limits;
+    private final int gold;
+    // the state of the search
+    private long[] capacity;
+    private long[] spent;
+    private long spentMaterials;
+    private int[] built;
+    private int[] used;
+    private int[] chosen;
+    private PriorityQueue<Plan> kept;
+    private int plans;
+    private long nodes;
+
+
+    /**
+     * Constructor <br>
+     * Works out every choice that can be made while building a homestead
+     * and what each is worth
+     *
+     * @param location The homestead
+     * @param catalog  The catalog to build the homestead from
+     * @param weights  What each room, piece of furniture and expense is
+     *                 worth, where anything left out is worth 1
+     */
+    BudgetOptimizer(Location location, MaterialCatalog catalog, Map<Enum<?>, Double> weights) {
+        if (!location.isHomestead()) {
+            throw new IllegalArgumentException(location.name() + " can\'t be customized");
+        }
+        this.location = location;
+        this.catalog = catalog;
+        this.limits = new int[]{HouseSpec.LARGE_TROPHY_LIMIT, HouseSpec.SMALL_TROPHY_LIMIT};
+        List<Decision> decisions = new ArrayList<>();
+
+        int[] outside = new Room(RoomType.Outside, catalog).getMaterialVector();
+        int[] cottage = new Room(RoomType.Small_House, catalog).getTotalMaterialVector().clone();
+        int[] manor = new Room(RoomType.Entryway, catalog).getTotalMaterialVector().clone();
+        MaterialCounter.tally(new Room(RoomType.Main_Hall, catalog).getTotalMaterialVector(), 1, manor);
+        MaterialCounter.tally(outside, 1, cottage);
+        MaterialCounter.tally(outside, 1, manor);
+        int gold = catalog.materialId(MaterialCatalog.GOLD);
+        this.gold = gold;
+        cottage[gold] += location.cost();
+        manor[gold] += location.cost();
+        decisions.add(new Decision(null, -1, true, List.of(
+                new Option(weights.getOrDefault(RoomType.Small_House, 0.0), cottage, null, spec -> spec.setManor(false)),
+                new Option(weights.getOrDefault(RoomType.Entryway, 0.0) + weights.getOrDefault(RoomType.Main_Hall, 0.0),
+                        manor, RoomType.Main_Hall, spec -> spec.setManor(true)))));
+
+        decisions.add(this.rooms(RoomType.Main_Hall, new RoomType[]{RoomType.Cellar}, weights));
+        for (RoomType room : HouseSpec.CELLAR_ROOMS) {
+            decisions.add(this.rooms(RoomType.Cellar, new RoomType[]{room}, weights));
+        }
+        for (RoomType[] wing : HouseSpec.WINGS) {
+            decisions.add(this.rooms(RoomType.Main_Hall, wing, weights));
+        }
+        // the most valuable furniture of each kind first, so the bound can
+        // take the best pieces that fit in a trophy room
+        List<Decision> furniture = new ArrayList<>();
+        for (FurnitureType type : HouseSpec.MAIN_HALL_FURNITURE) {
+            furniture.add(this.piece(type, RoomType.Main_Hall, -1, HouseSpec::mainHall, weights));
+        }
+        for (FurnitureType type : HouseSpec.SHRINES) {
+            furniture.add(this.piece(type, RoomType.Cellar_Religious, -1, HouseSpec::shrines, weights));
+        }
+        for (FurnitureType type : HouseSpec.LARGE_TROPHIES) {
+            furniture.add(this.piece(type, RoomType.Trophy_Room, 0, HouseSpec::trophies, weights));
+        }
+        for (FurnitureType type : HouseSpec.SMALL_TROPHIES) {
+            furniture.add(this.piece(type, RoomType.Trophy_Room, 1, HouseSpec::trophies, weights));
+        }
+        for (FurnitureType type : HouseSpec.OUTSIDE_FURNITURE) {
+            furniture.add(this.piece(type, null, -1, HouseSpec::outside, weights));
+        }
+        FurnitureType feature = HouseSpec.outsideFeature(location);
+        if (feature != null) {
+            furniture.add(this.piece(feature, null, -1, HouseSpec::outside, weights));
+        }
+        for (Expense expense : Expense.values()) {
+            double weight = weights.getOrDefault(expense, 1.0);
+            List<Option> options = new ArrayList<>();
+            for (int count = 1; count <= expense.limit(); count++) {
+                int[] vector = new int[catalog.materialCount()];
+                vector[gold] = expense.totalCost(count);
+                int bought = count;
+                options.add(new Option(weight * count, vector, null, spec -> spec.addExpense(expense, bought)));
+            }
+            furniture.add(new Decision(null, -1, false, options));
+        }
+        furniture.sort(Comparator.comparingDouble((Decision decision) -> -decision.best));
+        decisions.addAll(furniture);
+
+        // choices worth nothing are never made, unless something is built in them
+        boolean[] needed = new boolean[RoomType.values().length];
+        for (Decision decision : decisions) {
+            if (decision.requires != null) {
+                needed[decision.requires.ordinal()] = true;
+            }
+        }
+        this.decisions = decisions.stream().map(decision -> decision.without(needed)).toArray(Decision[]::new);
+        this.decider = new int[RoomType.values().length];
+        Arrays.fill(this.decider, -1);
+        for (int d = 0; d < this.decisions.length; d++) {
+            for (Option option : this.decisions[d].options) {
+                if (option.room != null) {
+                    this.decider[option.room.ordinal()] = d;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Finds the plans worth the most that can be built with the given gold
+     * and materials
+     *
+     * @param budget The gold to spend, including the plot
+     * @param onHand The amount of every material the player has, indexed
+     *               by material id, or null if they can get as much of
+     *               every material as they need
+     * @param plans  The most plans to find, at least 1
+     * @return The plans, the one worth the most first, which is empty if
+     * even the plot and the smallest house can\'t be built
+     * @throws IllegalArgumentException if plans is less than 1
+     */
+    List<Plan> optimize(long budget, int[] onHand, int plans) {
+        if (plans < 1) {
+            throw new IllegalArgumentException("can\'t find " + plans + " plans");
+        }
+        this.capacity = new long[this.catalog.materialCount()];
+        for (int id = 0; id < this.capacity.length; id++) {
+            this.capacity[id] = onHand == null ? Long.MAX_VALUE : onHand[id];
+        }
+        this.capacity[this.gold] = budget;
+        this.spent = new long[this.capacity.length];
+        this.spentMaterials = 0;
+        this.built = new int[RoomType.values().length];
+        this.used = new int[this.limits.length];
+        this.chosen = new int[this.decisions.length];
+        // the worst plan kept is at the head, to be dropped first, which is
+        // the one found last of those worth the least
+        this.kept = new PriorityQueue<>(Comparator.comparingDouble((Plan plan) -> plan.value)
+                .thenComparing(Comparator.comparingLong((Plan plan) -> plan.found).reversed()));
+        this.plans = plans;
+        this.nodes = 0;
+        this.search(0, 0);
+
+        List<Plan> best = new ArrayList<>(this.kept);
+        best.sort(this.kept.comparator().reversed());
+        for (Plan plan : best) {
+            plan.spec = new HouseSpec(this.location);
+            for (int d = 0; d < this.decisions.length; d++) {
+                if (plan.choices[d] >= 0) {
+                    this.decisions[d].options[plan.choices[d]].apply.accept(plan.spec);
+                }
+            }
+        }
+        this.kept = null;
+        return best;
+    }
+
+
+    /**
+     * Tries every option of a decision that fits, and making none of them,
+     * unless a branch can't beat the plans kept so far
+     *
+     * @param depth The index of the decision
+     * @param value What the choices made so far are worth
+     */
+    private void search(int depth, double value) {
+        this.nodes++;
+        if (depth == this.decisions.length) {
+            this.keep(value);
+            return;
+        }
+        if (this.kept.size() == this.plans && value + this.bound(depth) <= this.kept.peek().value) {
+            return;
+        }
+        Decision decision = this.decisions[depth];
+        boolean allowed = (decision.requires == null || this.built[decision.requires.ordinal()] > 0)
+                && (decision.limit < 0 || this.used[decision.limit] < this.limits[decision.limit]);
+        for (int o = 0; allowed && o < decision.options.length; o++) {
+            Option option = decision.options[o];
+            if (!this.fits(option)) {
+                continue;
+            }
+            this.take(option, 1);
+            if (decision.limit >= 0) {
+                this.used[decision.limit]++;
+            }
+            this.chosen[depth] = o;
+            this.search(depth + 1, value + option.value);
+            if (decision.limit >= 0) {
+                this.used[decision.limit]--;
+            }
+            this.take(option, -1);
+        }
+        if (!decision.mandatory) {
+            this.chosen[depth] = -1;
+            this.search(depth + 1, value);
+        }
+    }
+
+
+    /**
+     * @return The most the decisions from depth onwards could add, if each
+     * was made by itself with everything that is left over
+     */
+    private double bound(int depth) {
+        double bound = 0;
+        int[] left = new int[this.limits.length];
+        for (int i = 0; i < left.length; i++) {
+            left[i] = this.limits[i] - this.used[i];
+        }
+        for (int d = depth; d < this.decisions.length; d++) {
+            Decision decision = this.decisions[d];
+            // a room that wasn't built when it could have been never will be
+            if (decision.requires != null && this.built[decision.requires.ordinal()] == 0
+                    && this.decider[decision.requires.ordinal()] < depth) {
+                continue;
+            }
+            if (decision.limit >= 0 && left[decision.limit] == 0) {
+                continue;
+            }
+            double best = 0;
+            for (Option option : decision.options) {
+                if (option.value > best && this.fits(option)) {
+                    best = option.value;
+                }
+            }
+            if (best > 0 && decision.limit >= 0) {
+                left[decision.limit]--;
+            }
+            bound += best;
+        }
+        return bound;
+    }
+
+
+    /**
+     * @return True if there is enough left of everything an option needs
+     */
+    private boolean fits(Option option) {
+        for (int i = 0; i < option.ids.length; i++) {
+            if (this.spent[option.ids[i]] + option.amounts[i] > this.capacity[option.ids[i]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Spends what an option needs, or gives it back if times is -1
+     */
+    private void take(Option option, int times) {
+        for (int i = 0; i < option.ids.length; i++) {
+            this.spent[option.ids[i]] += (long) option.amounts[i] * times;
+            if (option.ids[i] != this.gold) {
+                this.spentMaterials += (long) option.amounts[i] * times;
+            }
+        }
+        if (option.room != null) {
+            this.built[option.room.ordinal()] += times;
+        }
+    }
+
+
+    /**
+     * Keeps the plan made by the current choices if it is one of the best so far
+     */
+    private void keep(double value) {
+        Plan plan = new Plan(value, this.spent[this.gold], this.spentMaterials, this.chosen.clone(), this.nodes);
+        this.kept.add(plan);
+        if (this.kept.size() > this.plans) {
+            this.kept.poll();
+        }
+    }
+
+
+    /**
+     * @return The number of branches looked at by the last search
+     */
+    long nodes() {
+        return this.nodes;
+    }
+
+
+    /**
+     * Prints plans, the one worth the most first
+     *
+     * @param plans The plans, as given by {@link #optimize(long, int[], int)}
+     * @param out   The stream to print to
+     */
+    void print(List<Plan> plans, PrintStream out) {
+        out.println(Names.displayName(this.location) + ":");
+        out.printf("    %8s %8s %9s  %s%n", "value", "gold", "materials", "spec");
+        for (Plan plan : plans) {
+            out.printf("    %8.1f %8d %9d  %s%n", plan.value, plan.gold, plan.materials, plan.spec);
+        }
+    }
+
+
+    /**
+     * @return The decision to build one of some rooms, or none of them
+     */
+    private Decision rooms(RoomType requires, RoomType[] rooms, Map<Enum<?>, Double> weights) {
+        List<Option> options = new ArrayList<>();
+        for (RoomType type : rooms) {
+            options.add(new Option(weights.getOrDefault(type, 1.0), new Room(type, this.catalog).getTotalMaterialVector(),
+                    type, spec -> spec.rooms().add(type)));
+        }
+        return new Decision(requires, -1, false, options);
+    }
+
+
+    /**
+     * @return The decision to add a piece of furniture or not
+     */
+    private Decision piece(FurnitureType type, RoomType requires, int limit,
+                           Function<HouseSpec, ? extends Collection<FurnitureType>> chosen, Map<Enum<?>, Double> weights) {
+        return new Decision(requires, limit, false, List.of(new Option(weights.getOrDefault(type, 1.0),
+                this.catalog.recipe(type).vector(), null, spec -> chosen.apply(spec).add(type))));
+    }
+
+
+    /**
+     * A plan found by the search
+     */
+    static final class Plan {
+
+        //fields
+        private final double value;
+        private final long gold;
+        private final long materials;
+        private final int[] choices;
+        // the branch the plan was found at, which only grows as the search goes on
+        private final long found;
+        private HouseSpec spec;
+
+
+        private Plan(double value, long gold, long materials, int[] choices, long found) {
+            this.value = value;
+            this.gold = gold;
+            this.materials = materials;
+            this.choices = choices;
+            this.found = found;
+        }
+
+
+        /**
+         * @return What the plan is worth
+         */
+        double value() {
+            return this.value;
+        }
+
+
+        /**
+         * @return The gold the plan needs, including the plot
+         */
+        long gold() {
+            return this.gold;
+        }
+
+
+        /**
+         * @return The spec to build the plan with
+         */
+        HouseSpec spec() {
+            return this.spec;
+        }
+    }
+
+
+    /**
+     * One thing that can be chosen, and what it needs and is worth
+     */
+    private static final class Option {
+
+        //fields
+        final double value;
+        final int[] ids;
+        final int[] amounts;
+        final RoomType room;
+        final Consumer<HouseSpec> apply;
+
+
+        /**
+         * @param value  What the option is worth
+         * @param vector What the option needs, indexed by material id
+         * @param room   The room the option builds, if anything depends on it
+         * @param apply  Makes the choice in a spec
+         */
+        Option(double value, int[] vector, RoomType room, Consumer<HouseSpec> apply) {
+            this.value = value;
+            this.ids = IntStream.range(0, vector.length).filter(id -> vector[id] != 0).toArray();
+            this.amounts = Arrays.stream(this.ids).map(id -> vector[id]).toArray();
+            this.room = room;
+            this.apply = apply;
+        }
+    }
+
+
+    /**
+     * A choice between some options, or none of them if it isn't mandatory
+     */
+    private static final class Decision {
+
+        //fields
+        final RoomType requires;
+        final int limit;
+        final boolean mandatory;
+        final Option[] options;
+        final double best;
+
+
+        /**
+         * @param requires  The room that must be built before any option can
+         *                  be chosen, or null
+         * @param limit     The limit that choosing an option counts towards, or -1
+         * @param mandatory True if one of the options has to be chosen
+         * @param options   The options
+         */
+        Decision(RoomType requires, int limit, boolean mandatory, List<Option> options) {
+            this.requires = requires;
+            this.limit = limit;
+            this.mandatory = mandatory;
+            // the most valuable first, so good plans are found early
+            this.options = options.stream().sorted(Comparator.comparingDouble((Option option) -> -option.value))
+                    .toArray(Option[]::new);
+            this.best = Arrays.stream(this.options).mapToDouble(option -> option.value).max().orElse(0);
+        }
+
+
+        /**
+         * @param needed The rooms something is built in, indexed by room type ordinal
+         * @return This decision without the options worth nothing, other than
+         * the ones that build a needed room
+         */
+        Decision without(boolean[] needed) {
+            if (this.mandatory) {
+                return this;
+            }
+            List<Option> kept = new ArrayList<>();
+            for (Option option : this.options) {
+                if (option.value > 0 || (option.room != null && needed[option.room.ordinal()])) {
+                    kept.add(option);
+                }
+            }
+            return new Decision(this.requires, this.limit, false, kept);
+        }
+    }
+}
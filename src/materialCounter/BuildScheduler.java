@@ -0,0 +1,280 @@
+package materialCounter;
+
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Works out an order to build a house in when the materials have to be
+ * gathered a few at a time, so the house takes as few trips as it can. <br>
+ * Every room, and every group of furniture in it, is a step that can only be
+ * built once everything it stands on is built: a room's furniture after the
+ * room, the Main_Hall after the Entryway, the Cellar and the wings after the
+ * Main_Hall, the parts of the cellar after the Cellar, and the shrines after
+ * the Shrine_Base. A trip carries at most a given number of materials, gold
+ * aside, and every step it is packed with is built when it gets back. Each
+ * trip is packed with the biggest steps that can be built and still fit,
+ * including steps that only become buildable during the trip, and a group of
+ * furniture can be split over several trips. A step too big for any one trip
+ * is gathered over as many trips as it needs
+ *
+ * @author Adam Cooper
+ */
+final class BuildScheduler {
+
+    //fields
+    private static final EnumMap<RoomType, RoomType> BUILT_AFTER = new EnumMap<>(RoomType.class);
+    private static final EnumSet<FurnitureType> SHRINES = EnumSet.copyOf(Arrays.asList(HouseSpec.SHRINES));
+    private final House house;
+    private final int capacity;
+    private final List<Step> steps;
+    private final int gold;
+
+    static {
+        BUILT_AFTER.put(RoomType.Main_Hall, RoomType.Entryway);
+        BUILT_AFTER.put(RoomType.Cellar, RoomType.Main_Hall);
+        for (RoomType room : HouseSpec.CELLAR_ROOMS) {
+            BUILT_AFTER.put(room, RoomType.Cellar);
+        }
+        for (RoomType[] wing : HouseSpec.WINGS) {
+            for (RoomType room : wing) {
+                BUILT_AFTER.put(room, RoomType.Main_Hall);
+            }
+        }
+    }
+
+
+    /**
+     * Constructor <br>
+     * Breaks a house down into the steps it is built in
+     *
+     * @param house    The house to build
+     * @param capacity The most materials that can be carried on one trip
+     */
+    BuildScheduler(House house, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("can\'t carry " + capacity + " materials");
+        }
+        this.house = house;
+        this.capacity = capacity;
+        this.steps = new ArrayList<>();
+        this.gold = house.getCatalog().materialId(MaterialCatalog.GOLD);
+        EnumMap<RoomType, Step> rooms = new EnumMap<>(RoomType.class);
+        for (Room room : house.getRooms()) {
+            Step structure = new Step(Names.displayName(room.getType()), this.load(room.getMaterialVector()), 1);
+            rooms.put(room.getType(), structure);
+            this.steps.add(structure);
+            Step shrineBase = null;
+            List<Step> shrines = new ArrayList<>();
+            for (Room.Furniture piece : room.getPieces()) {
+                Step step = new Step(Names.displayName(room.getType()) + ": " + Names.displayName(piece.getType()),
+                        this.load(piece.getMaterialVector()), piece.amount());
+                step.after(structure);
+                this.steps.add(step);
+                if (piece.getType() == FurnitureType.Shrine_Base) {
+                    shrineBase = step;
+                } else if (SHRINES.contains(piece.getType())) {
+                    shrines.add(step);
+                }
+            }
+            for (Step shrine : shrines) {
+                if (shrineBase != null) {
+                    shrine.after(shrineBase);
+                }
+            }
+        }
+        for (RoomType type : rooms.keySet()) {
+            RoomType before = BUILT_AFTER.get(type);
+            if (before != null && rooms.containsKey(before)) {
+                rooms.get(type).after(rooms.get(before));
+            }
+        }
+    }
+
+
+    /**
+     * @return The number of materials in a vector, gold aside
+     */
+    private int load(int[] vector) {
+        int load = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (id != this.gold) {
+                load += vector[id];
+            }
+        }
+        return load;
+    }
+
+
+    /**
+     * Packs every step into trips
+     *
+     * @return The trips, in the order they are made
+     */
+    List<Trip> schedule() {
+        int[] waiting = new int[this.steps.size()];
+        int[] left = new int[this.steps.size()];
+        List<Step> ready = new ArrayList<>();
+        for (int s = 0; s < this.steps.size(); s++) {
+            Step step = this.steps.get(s);
+            step.index = s;
+            waiting[s] = step.before;
+            left[s] = step.pieces;
+            if (waiting[s] == 0) {
+                ready.add(step);
+            }
+        }
+        List<Trip> trips = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Trip trip = new Trip();
+            int room = this.capacity;
+            while (true) {
+                // the biggest step that still fits, or the biggest of all if
+                // nothing fits in an empty trip
+                Step best = null;
+                for (Step step : ready) {
+                    if ((step.load <= room || trip.load == 0) && (best == null || step.load > best.load)) {
+                        best = step;
+                    }
+                }
+                if (best == null) {
+                    break;
+                }
+                int pieces = best.load == 0 ? left[best.index] : Math.max(1, Math.min(left[best.index], room / best.load));
+                trip.add(best.name, pieces, best.load * pieces);
+                room -= Math.min(room, best.load * pieces);
+                left[best.index] -= pieces;
+                if (left[best.index] == 0) {
+                    ready.remove(best);
+                    for (Step next : best.next) {
+                        if (--waiting[next.index] == 0) {
+                            ready.add(next);
+                        }
+                    }
+                }
+                if (trip.load > this.capacity) {
+                    // a step that needs several trips gets them to itself
+                    break;
+                }
+            }
+            trips.add(trip);
+        }
+        return trips;
+    }
+
+
+    /**
+     * Prints the trips and what is built after each of them
+     *
+     * @param trips The trips, as given by {@link #schedule()}
+     * @param out   The stream to print to
+     */
+    void print(List<Trip> trips, PrintStream out) {
+        out.println(Names.displayName(this.house.getLocation()) + ", carrying up to " + this.capacity + " materials:");
+        int made = 0;
+        long total = 0;
+        int peak = 0;
+        for (Trip trip : trips) {
+            int count = this.trips(trip);
+            if (count == 0) {
+                out.println("    Nothing to gather:");
+            } else {
+                out.println("    " + (count == 1 ? "Trip " + (made + 1) : "Trips " + (made + 1) + "-" + (made + count))
+                        + ", " + trip.load + " materials:");
+            }
+            for (String step : trip.steps) {
+                out.println("        " + step);
+            }
+            made += count;
+            total += trip.load;
+            peak = Math.max(peak, trip.load);
+        }
+        out.println(made + (made == 1 ? " trip" : " trips") + ", where " + (total + this.capacity - 1) / this.capacity
+                + " could carry everything, with at most " + peak + " materials on hand");
+    }
+
+
+    /**
+     * @param trip A trip, as given by {@link #schedule()}
+     * @return The number of trips it takes to gather everything it builds,
+     * which is 0 if it builds something that needs no materials
+     */
+    int trips(Trip trip) {
+        return (trip.load + this.capacity - 1) / this.capacity;
+    }
+
+
+    /**
+     * What is gathered on one trip and built after it
+     */
+    static final class Trip {
+
+        //fields
+        private final List<String> steps = new ArrayList<>();
+        private int load;
+
+
+        private void add(String step, int pieces, int load) {
+            this.steps.add(pieces == 1 ? step : step + " x" + pieces);
+            this.load += load;
+        }
+
+
+        /**
+         * @return Every step built after the trip, in order
+         */
+        List<String> steps() {
+            return this.steps;
+        }
+
+
+        /**
+         * @return The number of materials gathered on the trip, gold aside
+         */
+        int load() {
+            return this.load;
+        }
+    }
+
+
+    /**
+     * A room, or a group of furniture, that is built all at once
+     */
+    private static final class Step {
+
+        //fields
+        final String name;
+        final int load;
+        final int pieces;
+        final List<Step> next = new ArrayList<>();
+        int before;
+        int index;
+
+
+        /**
+         * @param name   The name the step is printed with
+         * @param load   The materials one piece needs, gold aside
+         * @param pieces The number of pieces, 1 for a room
+         */
+        Step(String name, int load, int pieces) {
+            this.name = name;
+            this.load = load;
+            this.pieces = pieces;
+        }
+
+
+        /**
+         * Makes this step wait for another
+         */
+        void after(Step other) {
+            other.next.add(this);
+            this.before++;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package materialCounter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Program to check the info files and compile them into a single catalog
+ * file that can be loaded without parsing any text, or into Java source that
+ * builds the catalog without reading any files at all
+ *
+ * @author Adam Cooper
+ */
+public class CatalogCompiler {
+
+    /**
+     * Compiles the info files
+     *
+     * @param args Optionally, --java and the source root to write
+     *             {@link GeneratedCatalog} under instead of the catalog file,
+     *             then optionally the directory containing the info files,
+     *             which defaults to the usual resource directory
+     */
+    public static void main(String[] args) {
+        Path sourceRoot = null;
+        if (args.length >= 2 && args[0].equals("--java")) {
+            sourceRoot = Paths.get(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        String directory = args.length > 0 ? args[0] : MaterialCatalog.getResourceDirectory();
+        List<String> errors = new ArrayList<>();
+        MaterialCatalog catalog = MaterialCatalog.parse(directory, errors);
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            System.err.println(errors.size() + (errors.size() == 1 ? " error" : " errors") + " found, catalog not compiled");
+            System.exit(1);
+        }
+        Path output = sourceRoot == null ? Paths.get(directory, BinaryCatalog.CATALOG_FILE) : sourceRoot;
+        try {
+            if (sourceRoot == null) {
+                BinaryCatalog.write(catalog, output);
+            } else {
+                output = CatalogSource.write(catalog, sourceRoot);
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to write catalog file \'" + output + "\'!");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("Wrote " + output);
+    }
+}
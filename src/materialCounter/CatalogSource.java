@@ -0,0 +1,156 @@
+package materialCounter;
+
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes a catalog out as the Java source of {@link GeneratedCatalog}, so
+ * the catalog can be compiled into the program and built without reading
+ * any files. <br>
+ * Every table is indexed by the ordinal of its room or furniture type, and
+ * each row holds flat (id, amount) pairs, or (furniture ordinal, amount)
+ * pairs for the furniture in a room. A type that isn't in the catalog has a
+ * null row. The tables are checked against the room and furniture types with
+ * the same fingerprint as the compiled catalog, see {@link BinaryCatalog}.
+ * Lines end in \r\n like the rest of the sources, so the copy generated by
+ * the build is the same as the one checked in
+ *
+ * @author Adam Cooper
+ */
+final class CatalogSource {
+
+    //fields
+    static final String CLASS_NAME = "GeneratedCatalog";
+    private static final int PAIRS_PER_LINE = 8;
+    private static final String LINE_END = "\r\n";
+
+
+    private CatalogSource() {
+    }
+
+
+    /**
+     * Writes the source of a catalog under a source root
+     *
+     * @param catalog    The catalog to write
+     * @param sourceRoot The directory the materialCounter package is in
+     * @return The source file written
+     * @throws IOException if the file can't be written
+     */
+    static Path write(MaterialCatalog catalog, Path sourceRoot) throws IOException {
+        Path file = sourceRoot.resolve("materialCounter").resolve(CLASS_NAME + ".java");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file)) {
+            @Override
+            public void println() {
+                this.print(LINE_END);
+            }
+        }) {
+            out.println("package materialCounter;");
+            out.println();
+            out.println("/**");
+            out.println(" * The catalog built from the info files, compiled into the program. <br>");
+            out.println(" * Generated by CatalogCompiler --java from " + MaterialCatalog.ROOM_FILE + " and "
+                    + MaterialCatalog.FURNITURE_FILE + ", do not edit");
+            out.println(" */");
+            out.println("final class " + CLASS_NAME + " {");
+            out.println();
+            out.println("    //fields");
+            out.println("    static final String[] MATERIALS = {");
+            for (int id = 0; id < catalog.materialCount(); id++) {
+                out.println("            \"" + catalog.materialName(id) + "\",");
+            }
+            out.println("    };");
+
+            out.println("    static final int[][] ROOM_MATERIALS = {");
+            for (RoomType type : RoomType.values()) {
+                MaterialCatalog.RoomInfo info = catalog.room(type);
+                writeRow(out, type.name(), info == null ? null : pairs(info.materials()));
+            }
+            out.println("    };");
+
+            out.println("    static final int[][] ROOM_FURNITURE = {");
+            for (RoomType type : RoomType.values()) {
+                MaterialCatalog.RoomInfo info = catalog.room(type);
+                int[] pieces = null;
+                if (info != null) {
+                    pieces = new int[2 * info.furniture().size()];
+                    int i = 0;
+                    for (Map.Entry<FurnitureType, Integer> piece : info.furniture()) {
+                        pieces[i++] = piece.getKey().ordinal();
+                        pieces[i++] = piece.getValue();
+                    }
+                }
+                writeRow(out, type.name(), pieces);
+            }
+            out.println("    };");
+
+            out.println("    static final int[][] FURNITURE_MATERIALS = {");
+            for (FurnitureType type : FurnitureType.values()) {
+                MaterialCatalog.Recipe recipe = catalog.recipe(type);
+                writeRow(out, type.name(), recipe == null ? null : pairs(recipe.vector()));
+            }
+            out.println("    };");
+            out.println();
+            out.println();
+            out.println("    private " + CLASS_NAME + "() {");
+            out.println("    }");
+            out.println();
+            out.println();
+            out.println("    /**");
+            out.println("     * @return The fingerprint of the room and furniture types the tables");
+            out.println("     * were generated against");
+            out.println("     */");
+            out.println("    static int fingerprint() {");
+            out.println("        return " + BinaryCatalog.fingerprint() + ";");
+            out.println("    }");
+            out.println("}");
+        }
+        return file;
+    }
+
+
+    /**
+     * @return An (id, amount) pair for each material in a vector
+     */
+    private static int[] pairs(int[] vector) {
+        int count = 0;
+        for (int amount : vector) {
+            count += amount != 0 ? 1 : 0;
+        }
+        int[] pairs = new int[2 * count];
+        int i = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                pairs[i++] = id;
+                pairs[i++] = vector[id];
+            }
+        }
+        return pairs;
+    }
+
+
+    /**
+     * Writes one row of a table, commented with the type it belongs to
+     */
+    private static void writeRow(PrintWriter out, String type, int[] row) {
+        if (row == null) {
+            out.println("            null, // " + type);
+            return;
+        }
+        StringBuilder sb = new StringBuilder("            {");
+        for (int i = 0; i < row.length; i += 2) {
+            if (i > 0) {
+                sb.append(i % (2 * PAIRS_PER_LINE) == 0 ? "," + LINE_END + "                    " : ", ");
+            }
+            sb.append(row[i]).append(", ").append(row[i + 1]);
+        }
+        out.println(sb.append("}, // ").append(type));
+    }
+}
@@ -0,0 +1,118 @@
+package materialCounter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches the info files and reloads the catalog whenever the room or
+ * furniture file changes, so a planner that stays up for a long time picks
+ * up corrections without being restarted. <br>
+ * The watching is done on a daemon thread. If the changed files can't be
+ * parsed, the errors are printed and the current catalog is kept
+ *
+ * @author Adam Cooper
+ */
+final class CatalogWatcher implements Closeable {
+
+    //fields
+    static final long SETTLE_MILLIS = 200;
+    private final String directory;
+    private final WatchService watcher;
+    private final Thread thread;
+
+
+    /**
+     * Constructor <br>
+     * Registers the directory to be watched, without starting to watch it
+     *
+     * @param directory The directory containing the info files
+     * @throws IOException if the directory can't be watched
+     */
+    CatalogWatcher(String directory) throws IOException {
+        this.directory = directory;
+        this.watcher = FileSystems.getDefault().newWatchService();
+        Paths.get(directory).register(this.watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "catalog-watcher");
+        this.thread.setDaemon(true);
+    }
+
+
+    /**
+     * Starts watching the info files
+     */
+    void start() {
+        this.thread.start();
+    }
+
+
+    /**
+     * Waits for the info files to change and reloads the catalog, until
+     * this watcher is closed
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watcher.take();
+                boolean changed = changed(key);
+                if (!changed) {
+                    continue;
+                }
+                // editors often save a file in more than one write, so wait for them to finish
+                Thread.sleep(SETTLE_MILLIS);
+                for (key = this.watcher.poll(); key != null; key = this.watcher.poll()) {
+                    changed(key);
+                }
+                this.reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+
+    /**
+     * @return True if any of the events on a key were for the room or
+     * furniture file
+     */
+    private static boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            String file = String.valueOf(event.context());
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.equals(MaterialCatalog.ROOM_FILE) || file.equals(MaterialCatalog.FURNITURE_FILE)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+
+    /**
+     * Reloads the catalog, printing any errors found in the info files
+     */
+    private void reload() {
+        List<String> errors = new ArrayList<>();
+        if (MaterialCatalog.reload(this.directory, errors)) {
+            System.err.println("Reloaded info files from \'" + this.directory + "\'");
+        } else {
+            System.err.println("Keeping the current catalog, the info files in \'" + this.directory + "\' have errors:");
+            errors.forEach(System.err::println);
+        }
+    }
+
+
+    /**
+     * Stops watching the info files
+     *
+     * @throws IOException if the watch service can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.watcher.close();
+        this.thread.interrupt();
+    }
+}
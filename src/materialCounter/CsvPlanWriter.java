@@ -0,0 +1,192 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+
+import java.io.IOException;
+
+/**
+ * Writes plans as CSV, one row per material, so they can be loaded by other
+ * programs. Every row is written straight to the Appendable, and every
+ * material name is escaped once up front. <br>
+ * The columns are:
+ * <pre>
+ * plan,location,section,room,item,count,material,amount
+ * </pre>
+ * where section is one of
+ * <ul>
+ * <li>room: a material needed by the room itself</li>
+ * <li>furniture: a material needed by each of count pieces of item in the room</li>
+ * <li>room_total: a material needed by the room and everything in it</li>
+ * <li>expense: the gold needed for count of the expense item</li>
+ * <li>plot or deed: the gold needed for the plot or deed</li>
+ * <li>total: a material needed by the whole house</li>
+ * <li>shopping_list: a material needed by all count plans in a batch</li>
+ * <li>shortfall: the amount of a material still missing from the inventory</li>
+ * <li>raw: the amount of a raw material needed, once crafted materials are
+ * broken down</li>
+ * <li>crafted: the amount of a material to craft from the raw materials</li>
+ * </ul>
+ *
+ * @author Adam Cooper
+ */
+final class CsvPlanWriter implements PlanWriter {
+
+    //fields
+    static final String HEADER = "plan,location,section,room,item,count,material,amount\n";
+    private final Appendable out;
+    private final String[] materials;
+    private final int gold;
+    private boolean started;
+
+
+    /**
+     * Constructor
+     *
+     * @param out Where to write the rows
+     */
+    CsvPlanWriter(Appendable out) {
+        this(out, MaterialCatalog.get());
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param out     Where to write the rows
+     * @param catalog The catalog the material vectors written were built from
+     */
+    CsvPlanWriter(Appendable out, MaterialCatalog catalog) {
+        this.out = out;
+        this.materials = new String[catalog.materialCount()];
+        for (int id = 0; id < this.materials.length; id++) {
+            this.materials[id] = escape(catalog.materialName(id));
+        }
+        this.gold = catalog.materialId(MaterialCatalog.GOLD);
+        this.started = false;
+    }
+
+
+    /**
+     * Quotes a value if it has anything in it that would break up a row
+     *
+     * @param value The value to escape
+     * @return The value as it is written in a row
+     */
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+
+    @Override
+    public void writeHouse(House house) throws IOException {
+        this.writePlan(1, 0, house, house.getTotalMaterialVector());
+    }
+
+
+    @Override
+    public void writePlan(int number, int line, House house, int[] totals) throws IOException {
+        this.header();
+        String plan = Integer.toString(number);
+        Location location = house.getLocation();
+        for (Room room : house.getRooms()) {
+            String roomName = room.getName();
+            this.writeRows(plan, location, "room", roomName, "", "", room.getMaterialVector());
+            for (Room.Furniture piece : room.getPieces()) {
+                this.writeRows(plan, location, "furniture", roomName, piece.getName(),
+                        Integer.toString(piece.amount()), piece.getMaterialVector());
+            }
+            this.writeRows(plan, location, "room_total", roomName, "", "", room.getTotalMaterialVector());
+        }
+        for (Expense expense : Expense.values()) {
+            int count = house.expenseCount(expense);
+            if (count > 0) {
+                this.writeRow(plan, location, "expense", "", expense.name(), Integer.toString(count), this.gold, expense.totalCost(count));
+            }
+        }
+        this.writeRow(plan, location, location.isHomestead() ? "plot" : "deed", "", "", "", this.gold, location.cost());
+        this.writeRows(plan, location, "total", "", "", "", totals);
+    }
+
+
+    @Override
+    public void writeShoppingList(int plans, int[] totals) throws IOException {
+        this.header();
+        for (int id = 0; id < totals.length; id++) {
+            if (totals[id] != 0) {
+                this.out.append(",,shopping_list,,,").append(Integer.toString(plans)).append(',')
+                        .append(this.materials[id]).append(',').append(Integer.toString(totals[id])).append('\n');
+            }
+        }
+    }
+
+
+    @Override
+    public void writeShortfall(Inventory inventory) throws IOException {
+        this.header();
+        int[] shortfall = inventory.shortfall();
+        for (int id = 0; id < shortfall.length; id++) {
+            if (shortfall[id] != 0) {
+                this.out.append(",,shortfall,,,,").append(this.materials[id]).append(',')
+                        .append(Integer.toString(shortfall[id])).append('\n');
+            }
+        }
+    }
+
+
+    @Override
+    public void writeRawMaterials(RecipeBook.Bill bill) throws IOException {
+        this.header();
+        this.writeBill("raw", bill.raw(), bill.recipes());
+        this.writeBill("crafted", bill.crafted(), bill.recipes());
+    }
+
+
+    /**
+     * Writes a row for every material in a vector of a bill, which can have
+     * materials the catalog doesn't
+     */
+    private void writeBill(String section, int[] vector, RecipeBook recipes) throws IOException {
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.out.append(",,").append(section).append(",,,,").append(escape(recipes.materialName(id))).append(',')
+                        .append(Integer.toString(vector[id])).append('\n');
+            }
+        }
+    }
+
+
+    /**
+     * Writes the header before the first row
+     */
+    private void header() throws IOException {
+        if (!this.started) {
+            this.out.append(HEADER);
+            this.started = true;
+        }
+    }
+
+
+    /**
+     * Writes a row for every material in a material vector
+     */
+    private void writeRows(String plan, Location location, String section, String room, String item, String count,
+                           int[] vector) throws IOException {
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.writeRow(plan, location, section, room, item, count, id, vector[id]);
+            }
+        }
+    }
+
+
+    private void writeRow(String plan, Location location, String section, String room, String item, String count,
+                          int material, int amount) throws IOException {
+        this.out.append(plan).append(',').append(location.name()).append(',').append(section).append(',')
+                .append(room).append(',').append(item).append(',').append(count).append(',')
+                .append(this.materials[material]).append(',').append(Integer.toString(amount)).append('\n');
+    }
+}
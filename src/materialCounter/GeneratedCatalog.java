@@ -0,0 +1,296 @@
+package materialCounter;
+
+/**
+ * The catalog built from the info files, compiled into the program. <br>
+ * Generated by CatalogCompiler --java from rooms.info and furniture.info, do not edit
+ */
+final class GeneratedCatalog {
+
+    //fields
+    static final String[] MATERIALS = {
+            "Gold",
+            "Sawn_Log",
+            "Quarried_Stone",
+            "Nails",
+            "Clay",
+            "Iron_Fittings",
+            "Lock",
+            "Hinge",
+            "Iron_Ingot",
+            "Glass",
+            "Steel_Ingot",
+            "Leather_Strips",
+            "Straw",
+            "Quicksilver_Ingot",
+            "Refined_Moonstone",
+            "Grand_Soul_Gem_Full",
+            "Gold_Ingot",
+            "Vampire_Dust",
+            "Goat_Horns",
+            "Bear_Pelt",
+            "Large_Antlers",
+            "Deer_Hide",
+            "Small_Antlers",
+            "Goat_Hide",
+            "Horker_Tusk",
+            "Mudcrab_Chitin",
+            "Sabre_Cat_Pelt",
+            "Sabre_Cat_Tooth",
+            "Slaughterfish_Scales",
+            "Sabre_Cat_Snow_Pelt",
+            "Wolf_Pelt",
+            "Amulet_of_Akatosh",
+            "Flawless_Amethyst",
+            "Corundum_Ingot",
+            "Amulet_of_Arkay",
+            "Orichalcum_Ingot",
+            "Silver_Ingot",
+            "Amulet_of_Dibella",
+            "Amulet_of_Julianos",
+            "Ebony_Ingot",
+            "Amulet_of_Kynareth",
+            "Flawless_Sapphire",
+            "Amulet_of_Mara",
+            "Refined_Malachite",
+            "Amulet_of_Stendarr",
+            "Amulet_of_Talos",
+            "Dragon_Bone",
+            "Dragon_Scales",
+            "Amulet_of_Zenithar",
+            "Bear_Claws",
+            "Chaurus_Chitin",
+            "Cow_Hide",
+            "Bone_Meal",
+            "Ancient_Nord_Sword",
+            "Dwemer_Scrap_Metal",
+            "Falmer_Sword",
+            "Falmer_Ear",
+            "Troll_Fat",
+            "Troll_Skull",
+            "Frostbite_Venom",
+            "Snow_Bear_Pelt",
+            "Ancient_Nord_Bow",
+            "Ancient_Nord_Arrow",
+            "Petty_Soul_Gem",
+            "Hagraven_Feathers",
+            "Hagraven_Claw",
+            "Ice_Wolf_Pelt",
+            "Charred_Skeever_Hide",
+            "Skeever_Tail",
+            "Skull",
+            "Taproot",
+    };
+    static final int[][] ROOM_MATERIALS = {
+            {1, 17, 2, 14, 3, 30, 4, 4, 5, 1, 6, 1, 7, 2}, // Small_House
+            {1, 17, 2, 14, 3, 30, 4, 4, 5, 1, 6, 1, 7, 2}, // Entryway
+            {1, 47, 2, 36, 3, 85, 4, 16, 5, 1, 6, 1, 7, 2}, // Main_Hall
+            {1, 8, 2, 50}, // Cellar
+            {}, // Cellar_Smithing
+            {}, // Cellar_Safes
+            {}, // Cellar_Religious
+            {1, 14, 2, 18, 3, 14, 4, 3, 5, 3, 6, 3, 7, 6}, // Armory
+            {1, 18, 2, 14, 3, 20, 4, 3, 5, 2, 6, 2, 7, 4}, // Kitchen
+            {1, 24, 2, 16, 3, 34, 4, 9, 5, 3, 6, 3, 7, 6}, // Library
+            {1, 14, 2, 18, 3, 14, 4, 3, 5, 3, 6, 3, 7, 6}, // Bedrooms
+            {1, 24, 2, 16, 3, 34, 4, 9, 5, 3, 6, 3, 7, 6}, // Enchanter_Tower
+            {1, 18, 2, 14, 3, 20, 4, 3, 5, 2, 6, 2, 7, 4}, // Greenhouse
+            {1, 24, 2, 16, 3, 34, 4, 9, 5, 3, 6, 3, 7, 6}, // Alchemy_Laboratory
+            {1, 18, 2, 14, 3, 20, 4, 3, 5, 2, 6, 2, 7, 4}, // Trophy_Room
+            {1, 14, 2, 18, 3, 14, 4, 3, 5, 3, 6, 3, 7, 6}, // Storage_Room
+            {0, 1800}, // Breezehome
+            {0, 9000}, // Hjerim
+            {0, 4300}, // Honeyside
+            {0, 11000}, // Proudspire_Manor
+            {}, // Severin_Manor
+            {0, 4200}, // Vlindrel_Hall
+            {}, // Outside
+    };
+    static final int[][] ROOM_FURNITURE = {
+            {0, 1, 6, 1, 7, 1, 19, 1, 28, 1, 40, 1, 45, 1, 46, 1,
+                    93, 2, 60, 1, 9, 1}, // Small_House
+            {0, 1, 6, 1, 18, 2, 21, 1, 23, 1, 34, 2, 40, 1, 46, 1,
+                    93, 3, 65, 1, 67, 2, 72, 1, 74, 1, 75, 1}, // Entryway
+            {0, 2, 1, 1, 12, 2, 13, 1, 14, 2, 16, 1, 17, 1, 18, 2,
+                    27, 1, 30, 1, 31, 1, 40, 1, 44, 2, 46, 2, 47, 2, 56, 1,
+                    59, 1, 67, 2, 69, 1, 70, 2, 71, 1, 73, 1, 2, 2, 5, 2,
+                    6, 1, 8, 1, 19, 1, 26, 1, 33, 2, 41, 1, 43, 1, 45, 1,
+                    57, 1, 74, 1, 75, 1, 10, 1, 13, 1, 25, 1, 28, 1, 44, 1,
+                    46, 1, 55, 1, 66, 1, 73, 1}, // Main_Hall
+            {0, 4, 1, 3, 7, 2, 18, 1, 21, 1, 28, 1, 30, 1, 64, 1,
+                    31, 1, 33, 2, 36, 1, 40, 2, 46, 3, 65, 2, 68, 1, 66, 1,
+                    74, 1, 51, 1, 58, 1, 63, 1, 93, 5}, // Cellar
+            {53, 1, 54, 1, 61, 1, 90, 1, 89, 1}, // Cellar_Smithing
+            {11, 2}, // Cellar_Safes
+            {79, 1}, // Cellar_Religious
+            {1, 1, 2, 1, 4, 2, 6, 2, 18, 2, 24, 1, 32, 5, 33, 2,
+                    35, 2, 52, 1, 37, 2, 25, 1, 27, 1, 27, 1, 90, 1, 93, 1,
+                    30, 1, 65, 1, 70, 1, 72, 1, 75, 1, 53, 1, 61, 1, 62, 2,
+                    90, 1, 93, 2}, // Armory
+            {0, 2, 2, 3, 21, 2, 24, 3, 28, 2, 30, 1, 44, 1, 46, 1,
+                    57, 1, 59, 1, 9, 4, 66, 1, 78, 1, 93, 1, 70, 1}, // Kitchen
+            {14, 1, 22, 1, 39, 4, 40, 1, 43, 5, 1, 1, 57, 1, 62, 1,
+                    93, 1}, // Library
+            {1, 1, 5, 1, 10, 1, 12, 1, 13, 2, 14, 1, 15, 2, 19, 1,
+                    28, 1, 30, 1, 33, 1, 41, 1, 42, 1, 44, 2, 46, 2, 37, 3,
+                    21, 3, 25, 1, 38, 1, 93, 1, 30, 1, 65, 1, 71, 1, 93, 1}, // Bedrooms
+            {1, 2, 2, 1, 7, 1, 18, 1, 44, 1, 31, 1, 33, 1, 34, 1,
+                    44, 1, 46, 1, 14, 1, 49, 1, 50, 2, 69, 1, 93, 1}, // Enchanter_Tower
+            {0, 2, 2, 2, 4, 2, 17, 1, 23, 2, 44, 1, 47, 1, 76, 3,
+                    77, 6, 57, 2, 69, 2, 71, 2}, // Greenhouse
+            {0, 2, 1, 1, 2, 1, 5, 2, 7, 1, 8, 1, 30, 1, 42, 1,
+                    44, 1, 46, 2, 1, 1, 57, 1, 9, 2, 93, 4, 48, 1, 71, 1}, // Alchemy_Laboratory
+            {0, 1, 1, 1, 2, 4, 22, 1, 41, 1, 44, 1, 46, 2, 91, 3,
+                    92, 4, 57, 1, 69, 1, 70, 1, 93, 1}, // Trophy_Room
+            {0, 2, 1, 2, 2, 2, 5, 1, 6, 1, 7, 2, 20, 1, 29, 1,
+                    30, 1, 41, 1, 44, 1, 46, 4, 37, 2, 21, 2, 25, 1, 38, 1,
+                    93, 1, 30, 1, 69, 1, 71, 1, 75, 1, 93, 1}, // Storage_Room
+            {}, // Breezehome
+            {}, // Hjerim
+            {}, // Honeyside
+            {}, // Proudspire_Manor
+            {}, // Severin_Manor
+            {}, // Vlindrel_Hall
+            {}, // Outside
+    };
+    static final int[][] FURNITURE_MATERIALS = {
+            {1, 1, 3, 1, 8, 1}, // Barrels
+            {1, 1, 3, 1, 5, 1, 6, 1, 7, 2}, // Chest
+            {1, 2, 3, 4, 5, 1}, // Cupboard
+            {1, 1, 3, 2, 5, 1}, // Desk
+            {1, 2, 3, 4, 5, 1, 7, 2, 9, 2}, // Display_Case_and_Cupboard
+            {1, 2, 3, 4, 5, 1, 7, 1, 9, 1}, // Display_Case_And_Small_Wardrobe
+            {1, 1, 3, 3, 5, 1}, // Dresser
+            {1, 1, 3, 2}, // End_Table_1
+            {1, 2, 3, 4}, // End_Table_2
+            {5, 1, 8, 1}, // Hanging_Rack
+            {6, 1, 7, 1, 10, 3}, // Safe_1
+            {6, 5, 7, 5, 10, 15}, // Safe_2
+            {1, 2, 3, 4, 5, 1, 7, 1}, // Tall_Wardrobe
+            {1, 1, 3, 2, 5, 1}, // Wardrobe_Small
+            {1, 1, 3, 1}, // Chair
+            {1, 1, 3, 1, 11, 2, 12, 1}, // Child_Bed
+            {1, 3, 3, 5}, // Dining_Table_and_Chairs
+            {1, 1, 3, 2, 7, 1, 9, 1}, // Display_Case
+            {1, 2, 3, 4, 7, 1, 9, 1}, // Display_Case_on_Low_Table
+            {1, 2, 3, 2, 11, 4, 12, 2}, // Double_Bed
+            {1, 2, 3, 4, 5, 1, 6, 1, 7, 2}, // Large_Table_with_Chest
+            {1, 1, 3, 2}, // Low_Table
+            {1, 1, 3, 2}, // Night_Table_1
+            {1, 2, 3, 4}, // Night_Tables_2
+            {1, 1, 3, 2}, // Round_Table
+            {1, 2, 3, 4}, // Round_Table_and_Chairs
+            {1, 1, 3, 1, 11, 2, 12, 1}, // Single_Bed
+            {1, 1, 3, 2}, // Square_Table
+            {1, 2, 3, 4}, // Square_Table_and_Chairs
+            {1, 2, 3, 4, 7, 2, 9, 2}, // Table_with_Display_Cases
+            {1, 1, 3, 1, 8, 1}, // Washbasin_on_Stand
+            {1, 1, 2, 1, 3, 1}, // Armor_Mannequin
+            {1, 1, 2, 1, 3, 5, 5, 1}, // Armor_Mannequin_with_Cupboard
+            {1, 1, 5, 1}, // Weapon_Plaque
+            {1, 2, 5, 2}, // Weapon_Racks_1
+            {1, 3, 5, 4}, // Weapon_Racks_2
+            {1, 4, 5, 5}, // Weapon_Racks_3
+            {1, 1, 3, 1}, // Bench
+            {1, 2, 3, 4}, // Table_With_Benches
+            {1, 2, 3, 4}, // Bookshelf
+            {1, 1, 3, 3}, // Corner_Shelf
+            {1, 2, 3, 4, 7, 1, 9, 1}, // Display_Case_and_Shelf
+            {1, 1, 3, 3}, // Small_Shelf
+            {1, 2, 3, 4}, // Tall_Bookshelf
+            {1, 2, 3, 4}, // Tall_Shelf
+            {1, 2, 3, 4, 7, 1, 9, 1}, // Tall_Shelf_with_Display_Case
+            {1, 1, 3, 1}, // Wall_Shelves_1
+            {1, 2, 3, 2}, // Wall_Shelves_2
+            {1, 1, 3, 2, 8, 1, 9, 1, 13, 1}, // Alchemy_Lab
+            {1, 1, 3, 1, 8, 1, 9, 1, 14, 1, 15, 1, 16, 1}, // Arcane_Enchanter
+            {8, 1}, // Brazer
+            {1, 1, 11, 1, 12, 2}, // Archery_Target_1
+            {1, 1, 11, 2, 12, 4}, // Archery_Targets_2
+            {1, 1, 2, 2, 8, 1}, // Armorer_Workbench
+            {1, 2, 2, 5, 5, 1, 8, 1}, // Blacksmith_Forge
+            {1, 1, 8, 4}, // Blacksmith_Anvil
+            {5, 1, 8, 2}, // Chandelier_Large
+            {5, 1, 8, 1, 18, 3}, // Chandelier_Small
+            {1, 1, 11, 1, 12, 2}, // Child_Practice_Dummy
+            {1, 1, 2, 4}, // Fireplace
+            {2, 1}, // Firepit
+            {1, 1, 2, 1, 5, 1}, // Grindstone
+            {8, 1, 18, 3}, // Lamp_Stand
+            {1, 1, 2, 2, 3, 1, 8, 1}, // Mead_Barrels
+            {1, 1, 3, 2, 7, 1, 17, 1}, // Coffin
+            {11, 1, 19, 1}, // Mounted_Bear_Head
+            {11, 1, 20, 1}, // Mounted_Elk_Antlers
+            {11, 1, 20, 1, 21, 1}, // Mounted_Elk_Head_1
+            {11, 1, 21, 1, 22, 1}, // Mounted_Elk_Head_2
+            {11, 1, 23, 1}, // Mounted_Goat_Head
+            {11, 1, 24, 2}, // Mounted_Horker_Head
+            {11, 1, 25, 2}, // Mounted_Mudcrab
+            {11, 1, 26, 1, 27, 2}, // Mounted_Sabre_Cat_Head
+            {11, 1, 28, 4}, // Mounted_Slaughterfish
+            {11, 1, 27, 2, 29, 1}, // Mounted_Snowy_Sabre_Cat_Head
+            {11, 1, 30, 1}, // Mounted_Wolf_Head
+            {1, 1, 2, 2, 4, 2}, // Large_Planter
+            {1, 2, 3, 4, 4, 2, 5, 1}, // Small_Planter_with_Cupboard
+            {2, 3, 4, 2}, // Oven
+            {1, 1, 2, 2, 4, 2}, // Shrine_Base
+            {8, 1, 31, 1, 32, 1, 33, 1}, // Shrine_of_Akatosh
+            {8, 1, 34, 1, 35, 1, 36, 1}, // Shrine_of_Arkay
+            {8, 1, 13, 1, 35, 1, 37, 1}, // Shrine_of_Dibella
+            {38, 1, 39, 2}, // Shrine_of_Julianos
+            {14, 2, 40, 1, 41, 1}, // Shrine_of_Kynareth
+            {36, 1, 42, 1, 43, 2}, // Shrine_of_Mara
+            {10, 1, 13, 1, 36, 2, 44, 1}, // Shrine_of_Stendarr
+            {10, 1, 45, 1, 46, 1, 47, 1}, // Shrine_of_Talos
+            {10, 1, 16, 2, 48, 1}, // Shrine_of_Zenithar
+            {2, 4, 4, 6, 5, 2, 8, 5}, // Smelter
+            {1, 1, 11, 1}, // Tanning_Rack
+            {1, 1, 2, 1, 4, 2}, // Trophy_Base_Large
+            {1, 1, 2, 1, 4, 1}, // Trophy_Base_Small
+            {5, 1, 18, 1}, // Wall_Sconce
+            {12, 1, 19, 1, 49, 2}, // Trophy_Bear
+            {12, 1, 50, 3}, // Trophy_Chaurus
+            {12, 1, 51, 1}, // Trophy_Cow
+            {12, 1, 20, 1, 21, 1}, // Trophy_Deer
+            {46, 1}, // Trophy_Dragon_Skull
+            {12, 1, 52, 5, 53, 1}, // Trophy_Draugr
+            {54, 5}, // Trophy_Dwarven_Sphere
+            {55, 1, 56, 2}, // Trophy_Falmer
+            {12, 1, 57, 1, 58, 1}, // Trophy_Frost_Troll
+            {12, 1, 59, 2}, // Trophy_Frostbite_Spider
+            {12, 2, 24, 2}, // Trophy_Horker
+            {12, 1, 26, 1, 27, 2}, // Trophy_Sabre_Cat
+            {12, 1, 49, 2, 60, 1}, // Trophy_Snow_Bear
+            {12, 1, 57, 1, 58, 1}, // Trophy_Troll
+            {12, 1, 30, 1}, // Trophy_Wolf
+            {12, 1, 52, 5, 61, 1, 62, 6}, // Trophy_Draugr_Small
+            {54, 2, 63, 1}, // Trophy_Dwarven_Spider
+            {55, 1, 56, 2}, // Trophy_Falmer_Small
+            {12, 1, 18, 2, 23, 1}, // Trophy_Goat
+            {12, 1, 64, 6, 65, 2}, // Trophy_Hagraven
+            {12, 1, 66, 1}, // Trophy_Ice_Wolf
+            {25, 3}, // Trophy_Mudcrab
+            {12, 1, 67, 1, 68, 1}, // Trophy_Skeever
+            {52, 5, 61, 1, 62, 1, 69, 1}, // Trophy_Skeleton
+            {12, 1, 28, 3}, // Trophy_Slaughterfish
+            {1, 1, 70, 1}, // Trophy_Spriggan
+            {1, 3, 2, 3, 3, 4}, // Fish_Hatchery
+            {1, 2, 3, 1, 12, 2}, // Apiary
+            {1, 2, 2, 2, 5, 2}, // Grain_Mill
+            {1, 1}, // Animal_Pen
+            {1, 1}, // Garden
+            {1, 3, 3, 5}, // Stable
+    };
+
+
+    private GeneratedCatalog() {
+    }
+
+
+    /**
+     * @return The fingerprint of the room and furniture types the tables
+     * were generated against
+     */
+    static int fingerprint() {
+        return 2079960018;
+    }
+}
@@ -0,0 +1,615 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/**
+ * Walks through every way a homestead can be built and keeps the ones that
+ * are worth building. <br>
+ * Every choice made while building a homestead (the layout, each wing, the
+ * cellar, shrines, trophies, outside features and expenses) adds a fixed
+ * amount of gold and materials, so each choice is reduced to a few numbers
+ * once and a configuration is just a sum of those numbers. Configurations
+ * are streamed in parallel chunks and only a Pareto frontier is kept: a
+ * configuration stays if no other one has at least as many features for no
+ * more gold and no more materials. <br>
+ * Shrines and trophies can be combined in too many ways to walk through
+ * every one, so for each number of shrines or trophies only the combinations
+ * that no other combination of the same size beats are kept. Every other
+ * combination would be beaten by the same house with a better combination,
+ * so the frontier doesn't change.
+ *
+ * @author Adam Cooper
+ */
+final class HomesteadEnumerator {
+
+    //fields
+    private static final int CHUNK = 1 << 16;
+    private final Location location;
+    private final MaterialCatalog catalog;
+    private final int gold;
+    private final List<Space> spaces;
+
+
+    /**
+     * Constructor <br>
+     * Works out every choice that can be made while building a homestead
+     *
+     * @param location The homestead
+     * @param catalog  The catalog to build the homestead from
+     */
+    HomesteadEnumerator(Location location, MaterialCatalog catalog) {
+        if (!location.isHomestead()) {
+            throw new IllegalArgumentException(location.name() + " can\'t be customized");
+        }
+        this.location = location;
+        this.catalog = catalog;
+        this.gold = catalog.materialId(MaterialCatalog.GOLD);
+        this.spaces = new ArrayList<>();
+        List<Choice> outside = this.outsideChoices();
+        List<Choice> expenses = expenseChoices();
+        Choice plot = new Choice(0, location.cost(), 0, spec -> {
+        });
+
+        Choice cottage = plot.plus(this.choice(new Room(RoomType.Outside, catalog).getMaterialVector(), 0, spec -> spec.setManor(false))
+                .plus(this.choice(new Room(RoomType.Small_House, catalog).getTotalMaterialVector(), 0, spec -> {
+                })));
+        this.spaces.add(new Space(cottage, List.of(expenses, outside)));
+
+        Choice manor = plot.plus(this.choice(new Room(RoomType.Outside, catalog).getMaterialVector(), 0, spec -> spec.setManor(true)))
+                .plus(this.room(RoomType.Entryway, 0))
+                .plus(this.room(RoomType.Main_Hall, 0));
+        List<List<Choice>> groups = new ArrayList<>(List.of(expenses, outside));
+        groups.add(this.furnitureChoices(HouseSpec.MAIN_HALL_FURNITURE, HouseSpec.MAIN_HALL_FURNITURE.length, HouseSpec::mainHall));
+        groups.add(this.cellarChoices());
+        for (RoomType[] wing : HouseSpec.WINGS) {
+            groups.add(this.wingChoices(wing));
+        }
+        this.spaces.add(new Space(manor, groups));
+    }
+
+
+    /**
+     * @return The number of configurations that will be walked through
+     */
+    long size() {
+        return this.spaces.stream().mapToLong(space -> space.size).sum();
+    }
+
+
+    /**
+     * Walks through every configuration in parallel
+     *
+     * @return The configurations that no other configuration beats
+     */
+    Frontier enumerate() {
+        Frontier frontier = new Frontier();
+        for (int i = 0; i < this.spaces.size(); i++) {
+            Space space = this.spaces.get(i);
+            int id = i;
+            long chunks = (space.size + CHUNK - 1) / CHUNK;
+            frontier.merge(LongStream.range(0, chunks).parallel().collect(
+                    Frontier::new,
+                    (partial, chunk) -> space.scan(id, chunk, partial),
+                    Frontier::merge));
+        }
+        return frontier.prune();
+    }
+
+
+    /**
+     * Rebuilds the spec of a configuration on the frontier
+     *
+     * @param space The space the configuration was found in
+     * @param index The index of the configuration in its space
+     * @return The spec of the configuration
+     */
+    HouseSpec spec(int space, long index) {
+        HouseSpec spec = new HouseSpec(this.location);
+        this.spaces.get(space).choice(index).apply.accept(spec);
+        return spec;
+    }
+
+
+    /**
+     * Prints every configuration on a frontier, by number of features
+     *
+     * @param frontier The frontier, as given by {@link #enumerate()}
+     * @param out      The stream to print to
+     */
+    void print(Frontier frontier, PrintStream out) {
+        out.println(Names.displayName(this.location) + ":");
+        out.printf("    %8s %8s %9s  %s%n", "features", "gold", "materials", "spec");
+        for (int features = frontier.skylines.length - 1; features >= 0; features--) {
+            Skyline skyline = frontier.skylines[features];
+            for (int i = 0; skyline != null && i < skyline.size; i++) {
+                out.printf("    %8d %8d %9d  %s%n", features, skyline.gold[i], skyline.materials[i],
+                        this.spec(skyline.spaces[i], skyline.indices[i]));
+            }
+        }
+    }
+
+
+    /**
+     * @return Every choice of outside furniture, including the feature only
+     * this homestead has
+     */
+    private List<Choice> outsideChoices() {
+        FurnitureType feature = HouseSpec.outsideFeature(this.location);
+        FurnitureType[] options = Arrays.copyOf(HouseSpec.OUTSIDE_FURNITURE, HouseSpec.OUTSIDE_FURNITURE.length + (feature == null ? 0 : 1));
+        if (feature != null) {
+            options[options.length - 1] = feature;
+        }
+        return this.furnitureChoices(options, options.length, HouseSpec::outside);
+    }
+
+
+    /**
+     * @return Every choice of how many of each expense to buy
+     */
+    private static List<Choice> expenseChoices() {
+        List<Choice> choices = new ArrayList<>(List.of(Choice.NONE));
+        for (Expense expense : Expense.values()) {
+            List<Choice> next = new ArrayList<>();
+            for (Choice choice : choices) {
+                for (int count = 0; count <= expense.limit(); count++) {
+                    int bought = count;
+                    next.add(choice.plus(new Choice(count, expense.totalCost(count), 0,
+                            spec -> spec.addExpense(expense, bought))));
+                }
+            }
+            choices = next;
+        }
+        return choices;
+    }
+
+
+    /**
+     * @return Every choice of cellar, with the best choices of shrines if
+     * the cellar has a religious part
+     */
+    private List<Choice> cellarChoices() {
+        List<Choice> choices = new ArrayList<>(List.of(Choice.NONE));
+        List<Choice> shrines = skyline(this.furnitureChoices(HouseSpec.SHRINES, HouseSpec.SHRINES.length, HouseSpec::shrines));
+        Choice religious = this.room(RoomType.Cellar_Religious, 1);
+        for (int parts = 0; parts < 1 << 2; parts++) {
+            Choice cellar = this.room(RoomType.Cellar, 1);
+            if ((parts & 1) != 0) {
+                cellar = cellar.plus(this.room(RoomType.Cellar_Smithing, 1));
+            }
+            if ((parts & 2) != 0) {
+                cellar = cellar.plus(this.room(RoomType.Cellar_Safes, 1));
+            }
+            choices.add(cellar);
+            for (Choice shrine : shrines) {
+                choices.add(cellar.plus(religious).plus(shrine));
+            }
+        }
+        return choices;
+    }
+
+
+    /**
+     * @param wing The rooms that can be built in a wing
+     * @return Every choice for the wing, with the best choices of trophies
+     * if it has a trophy room
+     */
+    private List<Choice> wingChoices(RoomType[] wing) {
+        List<Choice> choices = new ArrayList<>(List.of(Choice.NONE));
+        for (RoomType type : wing) {
+            Choice room = this.room(type, 1);
+            if (type != RoomType.Trophy_Room) {
+                choices.add(room);
+                continue;
+            }
+            List<Choice> large = skyline(this.furnitureChoices(HouseSpec.LARGE_TROPHIES, HouseSpec.LARGE_TROPHY_LIMIT, HouseSpec::trophies));
+            List<Choice> small = skyline(this.furnitureChoices(HouseSpec.SMALL_TROPHIES, HouseSpec.SMALL_TROPHY_LIMIT, HouseSpec::trophies));
+            List<Choice> trophies = new ArrayList<>();
+            for (Choice a : large) {
+                for (Choice b : small) {
+                    trophies.add(a.plus(b));
+                }
+            }
+            for (Choice trophy : skyline(trophies)) {
+                choices.add(room.plus(trophy));
+            }
+        }
+        return choices;
+    }
+
+
+    /**
+     * @param type     The room to build
+     * @param features The number of features the room counts as
+     * @return The choice to build the room and the furniture it comes with
+     */
+    private Choice room(RoomType type, int features) {
+        return this.choice(new Room(type, this.catalog).getTotalMaterialVector(), features, spec -> {
+            if (features > 0) {
+                spec.rooms().add(type);
+            }
+        });
+    }
+
+
+    /**
+     * @param options The furniture that can be chosen
+     * @param limit   The most pieces that can be chosen at once
+     * @param chosen  Where the chosen furniture is kept in a spec
+     * @return Every choice of up to limit pieces of furniture
+     */
+    private List<Choice> furnitureChoices(FurnitureType[] options, int limit,
+                                          Function<HouseSpec, ? extends Collection<FurnitureType>> chosen) {
+        List<Choice> choices = new ArrayList<>();
+        for (int mask = 0; mask < 1 << options.length; mask++) {
+            if (Integer.bitCount(mask) > limit) {
+                continue;
+            }
+            Choice choice = Choice.NONE;
+            for (int i = 0; i < options.length; i++) {
+                if ((mask & 1 << i) != 0) {
+                    FurnitureType type = options[i];
+                    choice = choice.plus(this.choice(this.catalog.recipe(type).vector(), 1, spec -> chosen.apply(spec).add(type)));
+                }
+            }
+            choices.add(choice);
+        }
+        return choices;
+    }
+
+
+    /**
+     * @param vector   The materials the choice needs, indexed by material id
+     * @param features The number of features the choice counts as
+     * @param apply    Makes the choice in a spec
+     * @return The choice
+     */
+    private Choice choice(int[] vector, int features, Consumer<HouseSpec> apply) {
+        long materials = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (id != this.gold) {
+                materials += vector[id];
+            }
+        }
+        return new Choice(features, vector[this.gold], materials, apply);
+    }
+
+
+    /**
+     * Drops every choice beaten by another choice with the same number of
+     * features
+     *
+     * @param choices The choices to filter
+     * @return The choices that are left
+     */
+    private static List<Choice> skyline(List<Choice> choices) {
+        List<Choice> sorted = new ArrayList<>(choices);
+        sorted.sort(Comparator.comparingInt((Choice choice) -> choice.features)
+                .thenComparingLong(choice -> choice.gold)
+                .thenComparingLong(choice -> choice.materials));
+        List<Choice> kept = new ArrayList<>();
+        Choice last = null;
+        for (Choice choice : sorted) {
+            // sorted by gold, so a choice is only kept if it needs fewer materials than every cheaper one
+            if (last == null || last.features != choice.features || choice.materials < last.materials) {
+                kept.add(choice);
+                last = choice;
+            }
+        }
+        return kept;
+    }
+
+
+    /**
+     * A single choice while building a homestead and what it adds to the
+     * house
+     */
+    private static final class Choice {
+
+        //fields
+        static final Choice NONE = new Choice(0, 0, 0, spec -> {
+        });
+        final int features;
+        final long gold;
+        final long materials;
+        final Consumer<HouseSpec> apply;
+
+
+        Choice(int features, long gold, long materials, Consumer<HouseSpec> apply) {
+            this.features = features;
+            this.gold = gold;
+            this.materials = materials;
+            this.apply = apply;
+        }
+
+
+        /**
+         * @return This choice and another made together
+         */
+        Choice plus(Choice other) {
+            return new Choice(this.features + other.features, this.gold + other.gold,
+                    this.materials + other.materials, this.apply.andThen(other.apply));
+        }
+    }
+
+
+    /**
+     * Every configuration of one layout, numbered by picking a choice from
+     * each group like the digits of a number
+     */
+    private static final class Space {
+
+        //fields
+        private final Choice base;
+        private final Choice[][] groups;
+        private final int[][] features;
+        private final long[][] gold;
+        private final long[][] materials;
+        private final long size;
+
+
+        Space(Choice base, List<List<Choice>> groups) {
+            this.base = base;
+            this.groups = new Choice[groups.size()][];
+            this.features = new int[groups.size()][];
+            this.gold = new long[groups.size()][];
+            this.materials = new long[groups.size()][];
+            long size = 1;
+            for (int g = 0; g < groups.size(); g++) {
+                this.groups[g] = groups.get(g).toArray(new Choice[0]);
+                this.features[g] = groups.get(g).stream().mapToInt(choice -> choice.features).toArray();
+                this.gold[g] = groups.get(g).stream().mapToLong(choice -> choice.gold).toArray();
+                this.materials[g] = groups.get(g).stream().mapToLong(choice -> choice.materials).toArray();
+                size *= this.groups[g].length;
+            }
+            this.size = size;
+        }
+
+
+        /**
+         * Offers every configuration in a chunk to a frontier
+         *
+         * @param id       The index of this space
+         * @param chunk    The chunk to walk through
+         * @param frontier The frontier to offer the configurations to
+         */
+        void scan(int id, long chunk, Frontier frontier) {
+            long start = chunk * CHUNK, end = Math.min(start + CHUNK, this.size);
+            int[] digits = this.digits(start);
+            for (long index = start; index < end; index++) {
+                int features = this.base.features;
+                long gold = this.base.gold, materials = this.base.materials;
+                for (int g = 0; g < digits.length; g++) {
+                    features += this.features[g][digits[g]];
+                    gold += this.gold[g][digits[g]];
+                    materials += this.materials[g][digits[g]];
+                }
+                frontier.offer(features, gold, materials, id, index);
+                // move on to the next configuration like an odometer
+                for (int g = 0; g < digits.length && ++digits[g] == this.groups[g].length; g++) {
+                    digits[g] = 0;
+                }
+            }
+        }
+
+
+        /**
+         * @return The choice made from each group for a configuration
+         */
+        private int[] digits(long index) {
+            int[] digits = new int[this.groups.length];
+            for (int g = 0; g < digits.length; g++) {
+                digits[g] = (int) (index % this.groups[g].length);
+                index /= this.groups[g].length;
+            }
+            return digits;
+        }
+
+
+        /**
+         * @return Every choice made for a configuration, combined
+         */
+        Choice choice(long index) {
+            int[] digits = this.digits(index);
+            Choice choice = this.base;
+            for (int g = 0; g < digits.length; g++) {
+                choice = choice.plus(this.groups[g][digits[g]]);
+            }
+            return choice;
+        }
+    }
+
+
+    /**
+     * The configurations that no other configuration beats, kept as one
+     * skyline of gold against materials for each number of features
+     */
+    static final class Frontier {
+
+        //fields
+        private Skyline[] skylines = new Skyline[0];
+
+
+        /**
+         * Keeps a configuration if nothing with the same number of features
+         * beats it
+         */
+        void offer(int features, long gold, long materials, int space, long index) {
+            if (features >= this.skylines.length) {
+                this.skylines = Arrays.copyOf(this.skylines, features + 1);
+            }
+            if (this.skylines[features] == null) {
+                this.skylines[features] = new Skyline();
+            }
+            this.skylines[features].offer(gold, materials, space, index);
+        }
+
+
+        /**
+         * Offers every configuration kept by another frontier to this one
+         */
+        void merge(Frontier other) {
+            for (int features = 0; features < other.skylines.length; features++) {
+                Skyline skyline = other.skylines[features];
+                for (int i = 0; skyline != null && i < skyline.size; i++) {
+                    this.offer(features, skyline.gold[i], skyline.materials[i], skyline.spaces[i], skyline.indices[i]);
+                }
+            }
+        }
+
+
+        /**
+         * Drops every configuration beaten by one with more features. Run
+         * with -ea to also check that none is beaten by one with the same
+         * features
+         *
+         * @return This frontier
+         */
+        Frontier prune() {
+            for (int features = this.skylines.length - 1; features >= 0; features--) {
+                Skyline skyline = this.skylines[features];
+                if (skyline == null) {
+                    continue;
+                }
+                assert skyline.beaten(features) == null : skyline.beaten(features);
+                for (int i = skyline.size - 1; i >= 0; i--) {
+                    for (int more = features + 1; more < this.skylines.length; more++) {
+                        if (this.skylines[more] != null && this.skylines[more].beats(skyline.gold[i], skyline.materials[i])) {
+                            skyline.remove(i);
+                            break;
+                        }
+                    }
+                }
+            }
+            return this;
+        }
+
+
+        /**
+         * @return The number of configurations on this frontier
+         */
+        int size() {
+            return Arrays.stream(this.skylines).mapToInt(skyline -> skyline == null ? 0 : skyline.size).sum();
+        }
+    }
+
+
+    /**
+     * Configurations sorted by gold, where each costs fewer materials than
+     * every cheaper one
+     */
+    private static final class Skyline {
+
+        //fields
+        private long[] gold = new long[8];
+        private long[] materials = new long[8];
+        private int[] spaces = new int[8];
+        private long[] indices = new long[8];
+        private int size;
+
+
+        /**
+         * @return True if something here costs no more gold and no more
+         * materials than the given amounts
+         */
+        boolean beats(long gold, long materials) {
+            int i = this.floor(gold);
+            return i >= 0 && this.materials[i] <= materials;
+        }
+
+
+        /**
+         * Keeps a configuration unless something here beats it, dropping
+         * everything it beats
+         */
+        void offer(long gold, long materials, int space, long index) {
+            if (this.beats(gold, materials)) {
+                return;
+            }
+            // anything else at the same gold costs more materials, so it is
+            // dropped along with everything after it that it beats
+            int at = this.floor(gold - 1) + 1;
+            int end = at;
+            while (end < this.size && this.materials[end] >= materials) {
+                end++;
+            }
+            if (end == at) {
+                if (this.size == this.gold.length) {
+                    this.gold = Arrays.copyOf(this.gold, this.size * 2);
+                    this.materials = Arrays.copyOf(this.materials, this.size * 2);
+                    this.spaces = Arrays.copyOf(this.spaces, this.size * 2);
+                    this.indices = Arrays.copyOf(this.indices, this.size * 2);
+                }
+                this.shift(at, at + 1);
+            } else {
+                this.shift(end, at + 1);
+            }
+            this.gold[at] = gold;
+            this.materials[at] = materials;
+            this.spaces[at] = space;
+            this.indices[at] = index;
+        }
+
+
+        void remove(int i) {
+            this.shift(i + 1, i);
+        }
+
+
+        /**
+         * Checks that every configuration costs more gold and fewer materials
+         * than the one before it, so none of them beats another
+         *
+         * @param features The number of features every configuration here has
+         * @return The first configuration kept next to one that beats it, or
+         * null if none is
+         */
+        String beaten(int features) {
+            for (int i = 1; i < this.size; i++) {
+                if (this.gold[i] <= this.gold[i - 1] || this.materials[i] >= this.materials[i - 1]) {
+                    return features + " features for " + this.gold[i - 1] + " gold and " + this.materials[i - 1]
+                            + " materials kept next to " + this.gold[i] + " gold and " + this.materials[i] + " materials";
+                }
+            }
+            return null;
+        }
+
+
+        /**
+         * Moves everything from index from onwards to index to
+         */
+        private void shift(int from, int to) {
+            System.arraycopy(this.gold, from, this.gold, to, this.size - from);
+            System.arraycopy(this.materials, from, this.materials, to, this.size - from);
+            System.arraycopy(this.spaces, from, this.spaces, to, this.size - from);
+            System.arraycopy(this.indices, from, this.indices, to, this.size - from);
+            this.size += to - from;
+        }
+
+
+        /**
+         * @return The index of the last configuration costing no more than
+         * the given gold, or -1 if there is none
+         */
+        private int floor(long gold) {
+            int low = 0, high = this.size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (this.gold[mid] <= gold) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
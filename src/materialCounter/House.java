@@ -3,6 +3,8 @@ package materialCounter;
 import materialCounter.Room.FurnitureType;
 import materialCounter.Room.RoomType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -13,23 +15,68 @@ import java.util.*;
 public class House {
 
     //fields
-    private LinkedHashSet<Room> rooms;
-    private Room outside;
-    private Location location;
+    private final LinkedHashSet<Room> rooms;
+    private final Room outside;
+    private final Location location;
+    private final HouseSpec spec;
+    private final int[] expenses;
+    private final MaterialCatalog catalog;
     private static final String BUILD_PROMPT = "Do you want to build ";
     private static final Scanner in = new Scanner(System.in);
 
 
     /**
-     * Constructor
+     * Constructor <br>
+     * Asks the user how the house should be built
      *
      * @param location The location of this House
      */
     House(Location location) {
+        this(askForSpec(location));
+    }
+
+
+    /**
+     * Constructor <br>
+     * Builds the house described by a spec without asking the user anything
+     *
+     * @param spec The choices to build this House with
+     */
+    House(HouseSpec spec) {
+        this(spec, MaterialCatalog.get());
+    }
+
+
+    /**
+     * Constructor <br>
+     * Builds the house described by a spec from one catalog. The house
+     * keeps using that catalog even if the info files are reloaded
+     *
+     * @param spec    The choices to build this House with
+     * @param catalog The catalog to read every room and piece of furniture from
+     */
+    House(HouseSpec spec, MaterialCatalog catalog) {
+        Metrics.HouseBuildEvent event = new Metrics.HouseBuildEvent();
+        event.begin();
+        long start = System.nanoTime();
+        this.catalog = catalog;
         this.rooms = new LinkedHashSet<>();
-        this.outside = new Room(RoomType.Outside);
-        this.location = location;
+        this.outside = this.room(RoomType.Outside);
+        this.location = spec.location();
+        this.spec = spec;
+        // the house keeps its own ledger, so changing the spec afterwards can't change this house
+        this.expenses = new int[Expense.values().length];
+        for (Expense expense : Expense.values()) {
+            this.expenses[expense.ordinal()] = spec.expenseCount(expense);
+        }
         this.addRooms();
+        Metrics.time(Metrics.Timer.HOUSE_BUILD, start);
+        Metrics.count(Metrics.Counter.HOUSES_BUILT);
+        if (event.shouldCommit()) {
+            event.location = this.location.name();
+            event.rooms = this.rooms.size();
+            event.commit();
+        }
     }
 
 
@@ -39,24 +86,177 @@ public class House {
     private void addRooms() {
         if (this.isHomestead()) {
             this.buildHomestead();
-            this.determineExpenses();
         } else
-            this.rooms.add(Room.getRoomByName(this.location.name()));
+            this.rooms.add(this.room(Names.room(this.location.name())));
+    }
+
+
+    /**
+     * Adds the rooms and features chosen for a homestead
+     */
+    private void buildHomestead() {
+        this.rooms.add(this.outside);
+        if (this.spec.isManor()) {
+            this.buildFullManor();
+        } else {
+            this.buildSmallCottage();
+        }
+        this.buildOutside();
+    }
+
+
+    /**
+     * @param type The type of room to build
+     * @return A new room of that type, built from this house's catalog
+     */
+    private Room room(RoomType type) {
+        return new Room(type, this.catalog);
     }
 
 
     /**
-     * Determines appropriate expenses for this home based on user input
+     * @param type The type of furniture to build
+     * @return A single piece of that furniture, built from this house's catalog
      */
-    private void determineExpenses() {
+    private Room.Furniture piece(FurnitureType type) {
+        return new Room.Furniture(type, 1, this.catalog);
+    }
+
+
+    /**
+     * Builds the outside furniture of the house
+     */
+    private void buildOutside() {
+        for (FurnitureType type : HouseSpec.OUTSIDE_FURNITURE) {
+            if (this.spec.outside().contains(type)) {
+                this.outside.addPiece(this.piece(type));
+            }
+        }
+        FurnitureType feature = HouseSpec.outsideFeature(this.location);
+        if (feature != null && this.spec.outside().contains(feature)) {
+            this.outside.addPiece(this.piece(feature));
+        }
+    }
+
+
+    /**
+     * Helper method for homestead building if the user just wants to build
+     * a small cottage
+     */
+    private void buildSmallCottage() {
+        this.rooms.add(this.room(RoomType.Small_House));
+    }
+
+
+    /**
+     * Helper method for homestead building if the user wants to build a full
+     * manor
+     */
+    private void buildFullManor() {
+        this.rooms.add(this.room(RoomType.Entryway));
+        Room mainHall = this.room(RoomType.Main_Hall);
+        this.rooms.add(mainHall);
+        // magic items in main hall
+        for (FurnitureType type : HouseSpec.MAIN_HALL_FURNITURE) {
+            if (this.spec.mainHall().contains(type)) {
+                mainHall.addPiece(this.piece(type));
+            }
+        }
+        this.buildCellar();
+        // build wings
+        for (RoomType[] wing : HouseSpec.WINGS) {
+            for (RoomType type : wing) {
+                if (this.spec.rooms().contains(type)) {
+                    Room newRoom = this.room(type);
+                    if (type == RoomType.Trophy_Room) {
+                        this.buildTrophies(newRoom);
+                    }
+                    this.rooms.add(newRoom);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Mounts the chosen trophies in the trophy room
+     *
+     * @param trophyRoom The trophy room
+     */
+    private void buildTrophies(Room trophyRoom) {
+        for (FurnitureType trophy : this.spec.sortedTrophies()) {
+            trophyRoom.addPiece(this.piece(trophy));
+        }
+    }
+
+
+    /**
+     * Helper method for building a full manor. Focuses on the cellar and
+     * its parts
+     */
+    private void buildCellar() {
+        if (!this.spec.rooms().contains(RoomType.Cellar)) {
+            return;
+        }
+        this.rooms.add(this.room(RoomType.Cellar));
+        if (this.spec.rooms().contains(RoomType.Cellar_Smithing)) {
+            this.rooms.add(this.room(RoomType.Cellar_Smithing));
+        }
+        if (this.spec.rooms().contains(RoomType.Cellar_Religious)) {
+            Room religious = this.room(RoomType.Cellar_Religious);
+            this.rooms.add(religious);
+            this.buildShrines(religious);
+        }
+        if (this.spec.rooms().contains(RoomType.Cellar_Safes)) {
+            this.rooms.add(this.room(RoomType.Cellar_Safes));
+        }
+    }
+
+
+    /**
+     * Helper method to build the chosen shrines in the cellar
+     *
+     * @param base The base on which to build the shrines
+     */
+    private void buildShrines(Room base) {
+        for (FurnitureType shrine : HouseSpec.SHRINES) {
+            if (this.spec.shrines().contains(shrine)) {
+                base.addPiece(this.piece(shrine));
+            }
+        }
+    }
+
+
+    /**
+     * Asks the user which rooms, features and expenses they want for a house
+     *
+     * @param location The location of the house
+     * @return The user's choices
+     */
+    static HouseSpec askForSpec(Location location) {
+        HouseSpec spec = new HouseSpec(location);
+        if (location.isHomestead()) {
+            askHomestead(spec);
+            askExpenses(spec);
+        }
+        return spec;
+    }
+
+
+    /**
+     * Asks the user which expenses they want for their home
+     *
+     * @param spec The choices to add to
+     */
+    private static void askExpenses(HouseSpec spec) {
         for (Expense expense : Expense.values()) {
             if (expense != Expense.Chicken) {
                 System.out.print("Do you want to buy a " + expense.name() + " for " + expense.cost() + " gold? (y/n) ");
                 if (getUserInputPositive()) {
-                    expense.add(1);
+                    spec.addExpense(expense, 1);
                 }
             } else {
-                System.out.print("How many chickens would you like to buy for 25 gold each?" + " (0-3) ");
+                System.out.print("How many chickens would you like to buy for " + expense.cost() + " gold each?" + " (0-" + expense.limit() + ") ");
                 boolean status = true;
                 while (status) {
                     int x = -1;
@@ -65,8 +265,8 @@ public class House {
                     } catch (InputMismatchException e) {
                         in.reset();
                     } finally {
-                        if (x >= 0 && x <= 3) {
-                            Expense.Chicken.add(x);
+                        if (x >= 0 && x <= expense.limit()) {
+                            spec.addExpense(expense, x);
                             in.nextLine();
                             status = false;
                         }
@@ -79,64 +279,58 @@ public class House {
 
 
     /**
-     * Asks the user which rooms and features they are adding and then
-     * adds them accordingly
+     * Asks the user which rooms and features they are adding
+     *
+     * @param spec The choices to add to
      */
-    private void buildHomestead() {
-        this.rooms.add(this.outside);
+    private static void askHomestead(HouseSpec spec) {
         while (true) {
             System.out.print("Enter 0 for small cottage, enter 1 for full house: ");
             String line = in.nextLine().trim();
             if (line.contains("1")) {
-                this.buildFullManor();
+                spec.setManor(true);
+                askFullManor(spec);
                 break;
             } else if (line.contains("0")) {
-                this.buildSmallCottage();
                 break;
             }
         }
-        this.buildOutside();
+        askOutside(spec);
     }
 
 
     /**
-     * Builds the outside furniture of the house
+     * Asks the user which outside furniture they want
+     *
+     * @param spec The choices to add to
      */
-    private void buildOutside() {
-        FurnitureType[] types = {
-                FurnitureType.Animal_Pen,
-                FurnitureType.Garden,
-                FurnitureType.Stable
-        };
+    private static void askOutside(HouseSpec spec) {
+        FurnitureType[] types = HouseSpec.OUTSIDE_FURNITURE;
         // for each type of outside furniture
         for (int i = 0; i < types.length; i++) {
             FurnitureType type = types[i];
-            System.out.print(BUILD_PROMPT + (i == 0 ? "an " : "a ") + formatName(type.name()) + "? (y/n) ");
+            System.out.print(BUILD_PROMPT + (i == 0 ? "an " : "a ") + Names.displayName(type) + "? (y/n) ");
             if (getUserInputPositive()) {
-                this.outside.addPiece(this.outside.new Furniture(type, 1));
+                spec.outside().add(type);
+            }
+        }
+        FurnitureType feature = HouseSpec.outsideFeature(spec.location());
+        if (feature != null) {
+            String name = Names.displayName(feature).toLowerCase();
+            System.out.print(BUILD_PROMPT + ("aeiou".indexOf(name.charAt(0)) >= 0 ? "an " : "a ") + name + "? (y/n) ");
+            if (getUserInputPositive()) {
+                spec.outside().add(feature);
             }
         }
-        this.assignOutsideFeature();
-    }
-
-
-    /**
-     * Helper method for homestead building if the user just wants to build
-     * a small cottage
-     */
-    private void buildSmallCottage() {
-        this.rooms.add(new Room(RoomType.Small_House));
     }
 
 
     /**
-     * Helper method for homestead building if the user wants to build a full
-     * manor
+     * Asks the user which rooms and furniture they want in a full manor
+     *
+     * @param spec The choices to add to
      */
-    private void buildFullManor() {
-        this.rooms.add(new Room(RoomType.Entryway));
-        Room mainHall = new Room(RoomType.Main_Hall);
-        this.rooms.add(mainHall);
+    private static void askFullManor(HouseSpec spec) {
         String[] westWing = {"West Wing", "Enchanter's Tower", "Bedrooms", "Greenhouse"};
         String[] northWing = {"North Wing", "Trophy Room", "Storage Room", "Alchemy Laboratory"};
         String[] eastWing = {"East Wing", "Library", "Armory", "Kitchen"};
@@ -144,16 +338,16 @@ public class House {
         // ask about magic items in main hall
         System.out.print("Do you want an arcane enchanter on the first floor" + " of your main hall? (y/n) ");
         if (getUserInputPositive()) {
-            mainHall.addPiece(mainHall.new Furniture(FurnitureType.Arcane_Enchanter, 1));
+            spec.mainHall().add(FurnitureType.Arcane_Enchanter);
         }
         System.out.print("Do you want an alchemy lab on the first floor" + " of your main hall? (y/n) ");
         if (getUserInputPositive()) {
-            mainHall.addPiece(mainHall.new Furniture(FurnitureType.Alchemy_Lab, 1));
+            spec.mainHall().add(FurnitureType.Alchemy_Lab);
         }
-        // build cellar
-        this.buildCellar();
-        // build wings
-        for (String[] wing : wings) {
+        askCellar(spec);
+        // ask about wings
+        for (int w = 0; w < wings.length; w++) {
+            String[] wing = wings[w];
             // wing[0] = wing name
             System.out.println("Select room for " + wing[0] + ":");
             for (int i = 1; i < 4; i++) {
@@ -170,12 +364,12 @@ public class House {
             } while (input < 0 || input > wings.length);
             in.nextLine();
             in.reset();
-            Room newRoom = Room.getRoomByName(formatToEnum(wing[input]));
-            if (newRoom != null) {
-                if (newRoom.getType().equals(RoomType.Trophy_Room)) {
-                    this.buildTrophies(newRoom);
+            if (input > 0) {
+                RoomType room = HouseSpec.WINGS[w][input - 1];
+                spec.rooms().add(room);
+                if (room == RoomType.Trophy_Room) {
+                    askTrophies(spec);
                 }
-                this.rooms.add(newRoom);
             }
         }
     }
@@ -184,56 +378,33 @@ public class House {
     /**
      * Asks the user what types of trophies they want for their trophy room
      *
-     * @param trophyRoom The trophy room
+     * @param spec The choices to add to
      */
-    private void buildTrophies(Room trophyRoom) {
-        if (!trophyRoom.getType().equals(RoomType.Trophy_Room)) {
-            return;
-        }
-        int largeTrophies = 3, smallTrophies = 4;
-        FurnitureType[] largeOptions = {
-                FurnitureType.Trophy_Bear, FurnitureType.Trophy_Chaurus,
-                FurnitureType.Trophy_Cow, FurnitureType.Trophy_Deer,
-                FurnitureType.Trophy_Dragon_Skull, FurnitureType.Trophy_Draugr,
-                FurnitureType.Trophy_Dwarven_Sphere, FurnitureType.Trophy_Falmer,
-                FurnitureType.Trophy_Frost_Troll,
-                FurnitureType.Trophy_Frostbite_Spider,
-                FurnitureType.Trophy_Horker, FurnitureType.Trophy_Sabre_Cat,
-                FurnitureType.Trophy_Snow_Bear, FurnitureType.Trophy_Troll,
-                FurnitureType.Trophy_Wolf
-        };
-        FurnitureType[] smallOptions = {
-                FurnitureType.Trophy_Draugr_Small,
-                FurnitureType.Trophy_Dwarven_Spider,
-                FurnitureType.Trophy_Falmer_Small, FurnitureType.Trophy_Goat,
-                FurnitureType.Trophy_Hagraven, FurnitureType.Trophy_Ice_Wolf,
-                FurnitureType.Trophy_Mudcrab, FurnitureType.Trophy_Skeever,
-                FurnitureType.Trophy_Skeleton, FurnitureType.Trophy_Slaughterfish,
-                FurnitureType.Trophy_Spriggan
-        };
-
+    private static void askTrophies(HouseSpec spec) {
         // choose large trophies
-        String prompt = "Please pick " + largeTrophies + " large trophies." + " (Separated by spaces)";
+        FurnitureType[] largeOptions = HouseSpec.LARGE_TROPHIES;
+        String prompt = "Please pick " + HouseSpec.LARGE_TROPHY_LIMIT + " large trophies." + " (Separated by spaces)";
         for (int i = 0; i < largeOptions.length; i++) {
             FurnitureType large = largeOptions[i];
-            System.out.println(i + ": " + large.name().replaceAll("Trophy_", "").replaceAll("_", " "));
+            System.out.println(i + ": " + Names.shortName(large));
         }
-        FurnitureType[] picks = getTrophyInput(largeOptions, largeTrophies, prompt);
+        FurnitureType[] picks = getTrophyInput(largeOptions, HouseSpec.LARGE_TROPHY_LIMIT, prompt);
         for (FurnitureType trophy : picks) {
             if (trophy != null) {
-                trophyRoom.addPiece(trophyRoom.new Furniture(trophy, 1));
+                spec.trophies().add(trophy);
             }
         }
         // chose small trophies
-        prompt = "Please pick " + smallTrophies + " small trophies." + " (Separated by spaces)";
+        FurnitureType[] smallOptions = HouseSpec.SMALL_TROPHIES;
+        prompt = "Please pick " + HouseSpec.SMALL_TROPHY_LIMIT + " small trophies." + " (Separated by spaces)";
         for (int i = 0; i < smallOptions.length; i++) {
             FurnitureType small = smallOptions[i];
-            System.out.println(i + ": " + small.name().replaceAll("Trophy_", "").replaceAll("_", " "));
+            System.out.println(i + ": " + Names.shortName(small));
         }
-        picks = getTrophyInput(smallOptions, smallTrophies, prompt);
+        picks = getTrophyInput(smallOptions, HouseSpec.SMALL_TROPHY_LIMIT, prompt);
         for (FurnitureType trophy : picks) {
             if (trophy != null) {
-                trophyRoom.addPiece(trophyRoom.new Furniture(trophy, 1));
+                spec.trophies().add(trophy);
             }
         }
     }
@@ -246,7 +417,7 @@ public class House {
      * @param largeTrophies The number of trophies to pick
      * @param prompt The prompt to print
      */
-    private FurnitureType[] getTrophyInput(FurnitureType[] largeOptions, int largeTrophies, String prompt) {
+    private static FurnitureType[] getTrophyInput(FurnitureType[] largeOptions, int largeTrophies, String prompt) {
         FurnitureType[] picks = null;
         while (picks == null) {
             System.out.println(prompt);
@@ -274,16 +445,14 @@ public class House {
      */
     private static FurnitureType[] parseTrophyChoices(String input, FurnitureType[] options, int limit) {
         FurnitureType[] result = new FurnitureType[limit];
-        String[] args = Room.fixSplit(input.split(" "));
-        for (int i = 0; i < limit; i++) {
-            FurnitureType trophy = null;
+        InfoTokenizer tokens = new InfoTokenizer(input);
+        tokens.nextLine();
+        for (int i = 0; i < limit && tokens.nextToken(); i++) {
             try {
-                int j = Integer.parseInt(args[i]);
-                trophy = j >= 0 && j < options.length ? options[j] : null;
-            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                int j = tokens.intToken();
+                result[i] = j >= 0 && j < options.length ? options[j] : null;
+            } catch (NumberFormatException e) {
                 /* do nothing */
-            } finally {
-                result[i] = trophy;
             }
         }
         return result;
@@ -291,48 +460,46 @@ public class House {
 
 
     /**
-     * Helper method for building a full manor. Focuses on the cellar and
-     * its parts
+     * Asks the user which parts of the cellar they want
+     *
+     * @param spec The choices to add to
      */
-    private void buildCellar() {
+    private static void askCellar(HouseSpec spec) {
         System.out.print(BUILD_PROMPT + "a cellar? (y/n) ");
         if (!getUserInputPositive()) {
             return; // if user doesn't want to build a cellar
         }
-        this.rooms.add(new Room(RoomType.Cellar));
+        spec.rooms().add(RoomType.Cellar);
         // build smithing items
         System.out.print(BUILD_PROMPT + "smithing equipment in your cellar? " + "(y/n) ");
         if (getUserInputPositive()) {
-            this.rooms.add(new Room(RoomType.Cellar_Smithing));
+            spec.rooms().add(RoomType.Cellar_Smithing);
         }
         // build shrine
         System.out.print(BUILD_PROMPT + "shrines in your cellar?" + " (y/n) ");
         if (getUserInputPositive()) {
-            Room religious = new Room(RoomType.Cellar_Religious);
-            this.rooms.add(religious);
-            this.buildShrines(religious);
+            spec.rooms().add(RoomType.Cellar_Religious);
+            askShrines(spec);
         }
         // build safes
         System.out.print(BUILD_PROMPT + "10 safes in your cellar? " + "(y/n) ");
         if (getUserInputPositive()) {
-            this.rooms.add(new Room(RoomType.Cellar_Safes));
+            spec.rooms().add(RoomType.Cellar_Safes);
         }
     }
 
 
     /**
-     * Helper method to determine which shrines to build in the cellar
+     * Asks the user which shrines to build in the cellar
      *
-     * @param base The base on which to build the shrines
+     * @param spec The choices to add to
      */
-    private void buildShrines(Room base) {
-        String[] divines = {"Akatosh", "Arkay", "Dibella", "Julianos", "Kynareth", "Mara", "Stendarr", "Talos", "Zenithar"};
-
-        for (String divine : divines) {
+    private static void askShrines(HouseSpec spec) {
+        for (FurnitureType shrine : HouseSpec.SHRINES) {
+            String divine = Names.shortName(shrine);
             System.out.print(BUILD_PROMPT + "a shrine to " + divine + "? (y/n) ");
             if (getUserInputPositive()) {
-                Room.Furniture shrine = Room.getFurnitureByName("Shrine_of_" + divine, base);
-                base.addPiece(shrine);
+                spec.shrines().add(shrine);
             } else { // lil joke :)
                 if (divine.equals("Talos")) {
                     System.out.println("Skyrim belongs to the Nords!");
@@ -342,53 +509,11 @@ public class House {
     }
 
 
-    /**
-     * Formats output strings to look like they should in the source code <br>
-     * I.E. a translator from user-friendly text to programmer-friendly text
-     *
-     * @param str The string to reformat
-     * @return str with all possessive modifiers removed and all spaces replaced
-     * with underscores
-     */
-    static String formatToEnum(String str) {
-        return str.trim().replaceAll("\'s", "").replaceAll(" ", "_");
-    }
-
-
     /**
      * @return true if this house is a homestead, false otherwise
      */
     private boolean isHomestead() {
-        return this.location == Location.Windstad_Manor || this.location == Location.Heljarchen_Hall || this.location == Location.Lakeview_Manor;
-    }
-
-
-    /**
-     * Assigns an appropriate outside feature if the house has one
-     */
-    private void assignOutsideFeature() {
-        switch (this.location) {
-            case Windstad_Manor:
-                System.out.print(BUILD_PROMPT + "a fish hatchery? (y/n) ");
-                if (getUserInputPositive()) {
-                    this.outside.addPiece(Room.getFurnitureByName("Fish_Hatchery", outside));
-                }
-                break;
-            case Lakeview_Manor:
-                System.out.print(BUILD_PROMPT + "an apiary? (y/n) ");
-                if (getUserInputPositive()) {
-                    this.outside.addPiece(Room.getFurnitureByName("Apiary", outside));
-                }
-                break;
-            case Heljarchen_Hall:
-                System.out.print(BUILD_PROMPT + "a grain mill? (y/n) ");
-                if (getUserInputPositive()) {
-                    this.outside.addPiece(Room.getFurnitureByName("Grain_Mill", outside));
-                }
-                break;
-            default:
-                break;
-        }
+        return this.location.isHomestead();
     }
 
 
@@ -400,38 +525,23 @@ public class House {
     }
 
 
-    private HashMap<String, Integer> maxLength = new HashMap<>();
-
-    /**
-     * Formats strings properly for printing
-     *
-     * @param material The material being used
-     * @param amount   The amount of that material
-     * @param category The category of the material, to keep track of appropriate length
-     * @return A formatted string in the form material: amount
-     */
-    private String formatString(String material, int amount, String category) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(formatName(material)).append(": ");
-        // append appropriate spaces to keep all values aligned
-        sb.append(" ".repeat(Math.max(0, maxLength.get(category) - material.length())));
-        sb.append(amount);
-        return new String(sb);
-    }
-
     /**
-     * Builds up max lengths for each category using recurrent calls
+     * Tallies up everything needed to build this home, including the gold
+     * for its expenses and the deed or plot
      *
-     * @param material The string whose length we are testing
-     * @param category The category of the string
+     * @return The amounts of each material, indexed by material id
      */
-    private void buildMaxLength(String material, String category) {
-        if (!maxLength.containsKey(category)) {
-            maxLength.put(category, 0);
+    int[] getTotalMaterialVector() {
+        int[] totals = new int[this.catalog.materialCount()];
+        for (Room room : this.rooms) {
+            MaterialCounter.tally(room.getTotalMaterialVector(), 1, totals);
         }
-        if (material.length() > maxLength.get(category)) {
-            maxLength.put(category, material.length());
+        int gold = this.catalog.materialId(MaterialCatalog.GOLD);
+        for (Expense expense : Expense.values()) {
+            totals[gold] += expense.totalCost(this.expenseCount(expense));
         }
+        totals[gold] += this.location.cost();
+        return totals;
     }
 
 
@@ -443,119 +553,71 @@ public class House {
      */
     @Override
     public String toString() {
-        String indent = "";
-        @SuppressWarnings("RegExpRepeatedSpace") String tab = "    ";
+        Metrics.RenderEvent event = new Metrics.RenderEvent();
+        event.begin();
+        long start = System.nanoTime();
         StringBuilder sb = new StringBuilder();
-        HashMap<String, Integer> houseTotals = new HashMap<>();
-        this.buildMaxLengths();
-        sb.append(formatName(this.location.name())).append(":\n");
-        indent += tab;
-        // for each room in this house
-        for (Room room : this.rooms) {
-            // in case there is nothing outside
-            if (room.getTotalMaterials().keySet().size() == 0) {
-                continue;
-            }
-            String val = room.getName().equals(location.name()) ? "Upgrade" : room.getName();
-            sb.append(indent).append(formatName(val)).append(":\n");
-            indent += tab;
-            // for all the furniture in each room in this house
-            for (Room.Furniture piece : room.getPieces()) {
-                sb.append(indent).append(formatName(piece.getName())).append(": ").append(piece.amount()).append("\n");
-                indent += tab;
-                // for all the materials to build each furniture in each room in this house
-                for (String material : piece.materials()) {
-                    sb.append(indent).append(formatString(material, piece.getMaterialCount(material), room.getName() + piece.getName())).append('\n');
-                }
-                indent = indent.replaceFirst("\\s{4}+", "");
-            }
-            HashMap<String, Integer> roomMaterials = room.getMaterials();
-            for (String material : roomMaterials.keySet()) {
-                sb.append(indent).append(formatString(material, roomMaterials.get(material), room.getName())).append('\n');
-            }
-            indent = indent.replaceFirst("\\s{4}+", "");
-            sb.append(indent).append("TOTALS:\n");
-            indent += tab;
-            // for all the materials required to build the room and everything in it
-            HashMap<String, Integer> totalMaterials = room.getTotalMaterials();
-            for (String material : totalMaterials.keySet()) {
-                sb.append(indent).append(formatString(material, totalMaterials.get(material), room.getName() + "total")).append('\n');
-                MaterialCounter.tally(material, totalMaterials.get(material), houseTotals);
-            }
-            indent = indent.replaceFirst("\\s{4}+", "");
-        }
-
-        sb.append(indent).append("EXPENSES:\n");
-        indent += tab;
-        for (Expense expense : Expense.values()) {
-            if (expense.count() <= 0) {
-                continue;
-            }
-            sb.append(indent).append(formatString(expense.name(), expense.count(), expense.getClass().getName())).append('\n');
-            indent += tab;
-            sb.append(indent).append("Gold: ").append(expense.totalCost()).append('\n');
-            indent = indent.replaceFirst(tab, "");
-            MaterialCounter.tally("Gold", expense.totalCost(), houseTotals);
-            indent = indent.replaceFirst("\\s{4}+", "");
-        }
-        sb.append(indent).append(formatName(location.name())).append(this.isHomestead() ? " plot:\n" : " deed:\n");
-        indent += tab;
-        sb.append(indent).append("Gold: ").append(location.cost()).append('\n');
-        MaterialCounter.tally("Gold", location.cost(), houseTotals);
-        indent = indent.replaceFirst("\\s{4}+", "").replaceFirst("\\s{4}+", "");
-        sb.append("TOTALS:\n");
-        //indent += tab;
-        for (String material : houseTotals.keySet()) {
-            sb.append(indent).append(formatString(material, houseTotals.get(material), location.name())).append('\n');
+        try {
+            new ReportWriter(sb, this.catalog).writeHouse(this);
+        } catch (IOException e) {
+            // appending to a StringBuilder never fails
+            throw new UncheckedIOException(e);
         }
+        Metrics.rendered(event, "text", start, sb.length());
         return new String(sb);
     }
 
 
-    private static String formatName(String name) {
-        return name.replaceAll("[_][0-9]", "").replaceAll("[_]", " ");
+    /**
+     * @return The rooms in this house, in the order they are built
+     */
+    Set<Room> getRooms() {
+        return Collections.unmodifiableSet(this.rooms);
     }
 
 
     /**
-     * Builds max lengths for each category
+     * @return The location of this house
      */
-    private void buildMaxLengths() {
-        for (Room room : this.rooms) {
-            for (Room.Furniture piece : room.getPieces()) {
-                for (String material : piece.materials()) {
-                    this.buildMaxLength(material, room.getName() + piece.getName());
-                }
-            }
-            for (String material : room.getMaterials().keySet()) {
-                this.buildMaxLength(material, room.getName());
-            }
-            for (String material : room.getTotalMaterials().keySet()) {
-                this.buildMaxLength(material, room.getName() + "total");
-                this.buildMaxLength(material, this.location.name());
-            }
-        }
-        for (Expense expense : Expense.values()) {
-            if (expense.count() > 0) {
-                this.buildMaxLength(expense.totalCost() + ' ' + expense.name(), expense.getClass().getName());
-            }
-        }
+    Location getLocation() {
+        return this.location;
+    }
+
+
+    /**
+     * @param expense The expense to look up
+     * @return How many of the expense are bought for this house
+     */
+    int expenseCount(Expense expense) {
+        return this.expenses[expense.ordinal()];
+    }
+
+
+    /**
+     * @return The catalog every room and piece of furniture in this house
+     * was built from
+     */
+    MaterialCatalog getCatalog() {
+        return this.catalog;
+    }
+
+
+    /**
+     * @return The choices this house was built with
+     */
+    HouseSpec getSpec() {
+        return this.spec;
     }
 
 
     /**
      * Gets a location by name
      *
-     * @param name The name to look up
+     * @param name The name to look up, in any spelling the user might give
      * @return The Location that matches name, or null if it doesn't exist
      */
     static Location getLocationByName(String name) {
-        for (Location location : Location.values()) {
-            if (location.name().equals(name)) {
-                return location;
-            }
-        }
-        return null;
+        return Names.location(name);
     }
 
 
@@ -563,36 +625,35 @@ public class House {
      * Describes different types of expenses for a home that aren't rooms or
      * furniture
      */
-    private enum Expense {
-        Bard(1500),
-        Carriage(500),
-        Cow(200),
-        Chicken(25),
-        Horse(1000);
+    enum Expense {
+        Bard(1500, 1),
+        Carriage(500, 1),
+        Cow(200, 1),
+        Chicken(25, 3),
+        Horse(1000, 1);
 
         //fields
-        private int cost;
-        private int count;
+        private final int cost;
+        private final int limit;
 
-        Expense(int cost) {
+        Expense(int cost, int limit) {
             this.cost = cost;
-            this.count = 0;
+            this.limit = limit;
         }
 
         public int cost() {
             return cost;
         }
 
-        public int count() {
-            return count;
+        /**
+         * @return The most of this expense a single home can have
+         */
+        public int limit() {
+            return limit;
         }
 
-        public void add(int amt) {
-            count += amt;
-        }
-
-        public int totalCost() {
-            return cost() * count();
+        public int totalCost(int count) {
+            return cost() * count;
         }
     }
 
@@ -621,5 +682,13 @@ public class House {
         public int cost() {
             return this.cost;
         }
+
+        /**
+         * @return True if a house is built from scratch on this location's
+         * plot, false if it is bought already built
+         */
+        boolean isHomestead() {
+            return this == Windstad_Manor || this == Heljarchen_Hall || this == Lakeview_Manor;
+        }
     }
 }
@@ -0,0 +1,481 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Class to represent every choice that goes into building a single house, so
+ * that a House can be built without asking the user anything. <br>
+ * A spec is written as whitespace separated key=value pairs, where lists are
+ * comma separated and anything after a '#' is a comment:
+ * <pre>
+ * location=Windstad_Manor layout=manor
+ * rooms=Cellar,Cellar_Religious,Enchanter_Tower,Trophy_Room,Kitchen
+ * main_hall=Alchemy_Lab shrines=Shrine_of_Mara,Shrine_of_Talos
+ * trophies=Trophy_Bear,Trophy_Goat outside=Garden,Fish_Hatchery
+ * expenses=Bard,Chicken:3
+ * </pre>
+ * Everything except the location is optional, and only homesteads can have
+ * anything other than a location.
+ *
+ * @author Adam Cooper
+ */
+public class HouseSpec {
+
+    //fields
+    private final Location location;
+    private boolean manor;
+    private final EnumSet<RoomType> rooms;
+    private final EnumSet<FurnitureType> mainHall;
+    private final EnumSet<FurnitureType> shrines;
+    private final List<FurnitureType> trophies;
+    private final EnumSet<FurnitureType> outside;
+    private final int[] expenses;
+
+    static final RoomType[] CELLAR_ROOMS = {RoomType.Cellar_Smithing, RoomType.Cellar_Religious, RoomType.Cellar_Safes};
+    static final RoomType[][] WINGS = {
+            {RoomType.Enchanter_Tower, RoomType.Bedrooms, RoomType.Greenhouse},
+            {RoomType.Trophy_Room, RoomType.Storage_Room, RoomType.Alchemy_Laboratory},
+            {RoomType.Library, RoomType.Armory, RoomType.Kitchen}
+    };
+    static final FurnitureType[] MAIN_HALL_FURNITURE = {FurnitureType.Arcane_Enchanter, FurnitureType.Alchemy_Lab};
+    static final FurnitureType[] SHRINES = {
+            FurnitureType.Shrine_of_Akatosh, FurnitureType.Shrine_of_Arkay,
+            FurnitureType.Shrine_of_Dibella, FurnitureType.Shrine_of_Julianos,
+            FurnitureType.Shrine_of_Kynareth, FurnitureType.Shrine_of_Mara,
+            FurnitureType.Shrine_of_Stendarr, FurnitureType.Shrine_of_Talos,
+            FurnitureType.Shrine_of_Zenithar
+    };
+    static final FurnitureType[] LARGE_TROPHIES = {
+            FurnitureType.Trophy_Bear, FurnitureType.Trophy_Chaurus,
+            FurnitureType.Trophy_Cow, FurnitureType.Trophy_Deer,
+            FurnitureType.Trophy_Dragon_Skull, FurnitureType.Trophy_Draugr,
+            FurnitureType.Trophy_Dwarven_Sphere, FurnitureType.Trophy_Falmer,
+            FurnitureType.Trophy_Frost_Troll,
+            FurnitureType.Trophy_Frostbite_Spider,
+            FurnitureType.Trophy_Horker, FurnitureType.Trophy_Sabre_Cat,
+            FurnitureType.Trophy_Snow_Bear, FurnitureType.Trophy_Troll,
+            FurnitureType.Trophy_Wolf
+    };
+    static final FurnitureType[] SMALL_TROPHIES = {
+            FurnitureType.Trophy_Draugr_Small,
+            FurnitureType.Trophy_Dwarven_Spider,
+            FurnitureType.Trophy_Falmer_Small, FurnitureType.Trophy_Goat,
+            FurnitureType.Trophy_Hagraven, FurnitureType.Trophy_Ice_Wolf,
+            FurnitureType.Trophy_Mudcrab, FurnitureType.Trophy_Skeever,
+            FurnitureType.Trophy_Skeleton, FurnitureType.Trophy_Slaughterfish,
+            FurnitureType.Trophy_Spriggan
+    };
+    static final int LARGE_TROPHY_LIMIT = 3;
+    static final int SMALL_TROPHY_LIMIT = 4;
+    static final FurnitureType[] OUTSIDE_FURNITURE = {FurnitureType.Animal_Pen, FurnitureType.Garden, FurnitureType.Stable};
+    static final String COMMENT = "#";
+    private static final String[] LIST_KEYS = {"rooms", "main_hall", "shrines", "trophies", "outside", "expenses"};
+
+
+    /**
+     * Constructor <br>
+     * Creates a spec for a house at the given location with nothing chosen
+     *
+     * @param location The location of the house
+     */
+    HouseSpec(Location location) {
+        this.location = location;
+        this.manor = false;
+        this.rooms = EnumSet.noneOf(RoomType.class);
+        this.mainHall = EnumSet.noneOf(FurnitureType.class);
+        this.shrines = EnumSet.noneOf(FurnitureType.class);
+        this.trophies = new ArrayList<>();
+        this.outside = EnumSet.noneOf(FurnitureType.class);
+        this.expenses = new int[Expense.values().length];
+    }
+
+
+    /**
+     * Reads a spec from a file
+     *
+     * @param file The file to read
+     * @return The spec written in the file
+     * @throws IOException              if the file can't be read
+     * @throws IllegalArgumentException if the spec is invalid
+     */
+    public static HouseSpec read(Path file) throws IOException {
+        return parse(String.join("\n", Files.readAllLines(file)));
+    }
+
+
+    /**
+     * Parses a spec
+     *
+     * @param text The key=value pairs describing the house
+     * @return The spec described by text
+     * @throws IllegalArgumentException if the spec is invalid, with a message
+     *                                  listing everything wrong with it
+     */
+    public static HouseSpec parse(String text) throws IllegalArgumentException {
+        List<String> errors = new ArrayList<>();
+        LinkedHashMap<String, String> values = new LinkedHashMap<>();
+        for (String line : text.split("\n")) {
+            int comment = line.indexOf(COMMENT);
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            for (String token : Room.fixSplit(line.trim().split("\\s"))) {
+                int split = token.indexOf('=');
+                if (split <= 0) {
+                    errors.add("expected key=value but got \'" + token + "\'");
+                } else if (values.put(token.substring(0, split), token.substring(split + 1)) != null) {
+                    errors.add("\'" + token.substring(0, split) + "\' given more than once");
+                }
+            }
+        }
+
+        Location location = null;
+        String name = values.remove("location");
+        if (name == null) {
+            errors.add("no location given");
+        } else {
+            location = House.getLocationByName(name);
+            if (location == null) {
+                errors.add("unknown location \'" + name + "\'");
+            }
+        }
+        if (location == null) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        HouseSpec spec = new HouseSpec(location);
+        String layout = values.remove("layout");
+        if (layout != null) {
+            if (layout.equals("manor")) {
+                spec.manor = true;
+            } else if (!layout.equals("cottage")) {
+                errors.add("layout must be \'cottage\' or \'manor\', not \'" + layout + "\'");
+            }
+        }
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String key = entry.getKey();
+            if (!Arrays.asList(LIST_KEYS).contains(key)) {
+                errors.add("unknown key \'" + key + "\'");
+                continue;
+            }
+            for (String item : Room.fixSplit(entry.getValue().split(","))) {
+                try {
+                    if (key.equals("rooms")) {
+                        spec.rooms.add(known(Names.room(item)));
+                    } else if (key.equals("expenses")) {
+                        int split = item.indexOf(':');
+                        Expense expense = known(Names.expense(split < 0 ? item : item.substring(0, split)));
+                        spec.expenses[expense.ordinal()] += split < 0 ? 1 : Integer.parseInt(item.substring(split + 1));
+                    } else {
+                        spec.furnitureList(key).add(known(Names.furniture(item)));
+                    }
+                } catch (IllegalArgumentException e) {
+                    errors.add("bad " + key + " value \'" + item + "\'");
+                }
+            }
+        }
+        errors.addAll(spec.validate());
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        return spec;
+    }
+
+
+    /**
+     * @param value A constant looked up by name
+     * @return The constant
+     * @throws IllegalArgumentException if no constant had that name
+     */
+    private static <E extends Enum<E>> E known(E value) {
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+        return value;
+    }
+
+
+    /**
+     * @param key The key a list of furniture is given under
+     * @return The furniture chosen under that key
+     */
+    private Collection<FurnitureType> furnitureList(String key) {
+        switch (key) {
+            case "main_hall":
+                return this.mainHall;
+            case "shrines":
+                return this.shrines;
+            case "trophies":
+                return this.trophies;
+            default:
+                return this.outside;
+        }
+    }
+
+
+    /**
+     * Checks that every choice in this spec could have been made while
+     * building the house in game
+     *
+     * @return A message for every invalid choice
+     */
+    List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        if (!this.location.isHomestead()) {
+            if (this.manor || !this.rooms.isEmpty() || !this.mainHall.isEmpty() || !this.shrines.isEmpty()
+                    || !this.trophies.isEmpty() || !this.outside.isEmpty() || Arrays.stream(this.expenses).anyMatch(count -> count != 0)) {
+                errors.add(this.location.name() + " can\'t be customized");
+            }
+            return errors;
+        }
+        if (!this.manor && (!this.rooms.isEmpty() || !this.mainHall.isEmpty())) {
+            errors.add("a cottage has no extra rooms");
+        }
+        for (RoomType room : this.rooms) {
+            if (room != RoomType.Cellar && !Arrays.asList(CELLAR_ROOMS).contains(room) && wingOf(room) < 0) {
+                errors.add("room \'" + room.name() + "\' can\'t be chosen");
+            }
+        }
+        for (RoomType room : CELLAR_ROOMS) {
+            if (this.rooms.contains(room) && !this.rooms.contains(RoomType.Cellar)) {
+                errors.add("room \'" + room.name() + "\' needs a Cellar");
+            }
+        }
+        for (RoomType[] wing : WINGS) {
+            if (Arrays.stream(wing).filter(this.rooms::contains).count() > 1) {
+                errors.add("only one of " + Arrays.toString(wing) + " can be built");
+            }
+        }
+        checkChoices(this.mainHall, MAIN_HALL_FURNITURE, "main hall", errors);
+        checkChoices(this.shrines, SHRINES, "shrine", errors);
+        if (!this.shrines.isEmpty() && !this.rooms.contains(RoomType.Cellar_Religious)) {
+            errors.add("shrines need a Cellar_Religious");
+        }
+        checkChoices(this.trophies, concat(LARGE_TROPHIES, SMALL_TROPHIES), "trophy", errors);
+        if (!this.trophies.isEmpty() && !this.rooms.contains(RoomType.Trophy_Room)) {
+            errors.add("trophies need a Trophy_Room");
+        }
+        if (this.trophies.stream().filter(Arrays.asList(LARGE_TROPHIES)::contains).count() > LARGE_TROPHY_LIMIT) {
+            errors.add("at most " + LARGE_TROPHY_LIMIT + " large trophies fit in a trophy room");
+        }
+        if (this.trophies.stream().filter(Arrays.asList(SMALL_TROPHIES)::contains).count() > SMALL_TROPHY_LIMIT) {
+            errors.add("at most " + SMALL_TROPHY_LIMIT + " small trophies fit in a trophy room");
+        }
+        FurnitureType feature = outsideFeature(this.location);
+        checkChoices(this.outside, feature == null ? OUTSIDE_FURNITURE : concat(OUTSIDE_FURNITURE, new FurnitureType[]{feature}), "outside", errors);
+        for (Expense expense : Expense.values()) {
+            int count = this.expenses[expense.ordinal()];
+            if (count < 0 || count > expense.limit()) {
+                errors.add("can buy between 0 and " + expense.limit() + " of " + expense.name());
+            }
+        }
+        return errors;
+    }
+
+
+    /**
+     * Adds an error for every choice that isn't one of the options
+     */
+    private static void checkChoices(Collection<FurnitureType> choices, FurnitureType[] options, String kind, List<String> errors) {
+        List<FurnitureType> allowed = Arrays.asList(options);
+        for (FurnitureType choice : choices) {
+            if (!allowed.contains(choice)) {
+                errors.add(kind + " \'" + choice.name() + "\' can\'t be chosen here");
+            }
+        }
+    }
+
+
+    /**
+     * @return A new array holding the contents of a followed by the contents of b
+     */
+    private static FurnitureType[] concat(FurnitureType[] a, FurnitureType[] b) {
+        FurnitureType[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+
+    /**
+     * Gets the wing a room can be built in
+     *
+     * @param room The room to look up
+     * @return The index of the room's wing in WINGS, or -1 if it isn't a wing room
+     */
+    static int wingOf(RoomType room) {
+        for (int i = 0; i < WINGS.length; i++) {
+            if (Arrays.asList(WINGS[i]).contains(room)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Gets the outside feature only a particular homestead has
+     *
+     * @param location The homestead
+     * @return The feature, or null if the location doesn't have one
+     */
+    static FurnitureType outsideFeature(Location location) {
+        switch (location) {
+            case Windstad_Manor:
+                return FurnitureType.Fish_Hatchery;
+            case Lakeview_Manor:
+                return FurnitureType.Apiary;
+            case Heljarchen_Hall:
+                return FurnitureType.Grain_Mill;
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * @return The location of the house
+     */
+    Location location() {
+        return this.location;
+    }
+
+
+    /**
+     * @return True if a full manor is built on the plot, false for a small cottage
+     */
+    boolean isManor() {
+        return this.manor;
+    }
+
+
+    /**
+     * @param manor True to build a full manor, false for a small cottage
+     */
+    void setManor(boolean manor) {
+        this.manor = manor;
+    }
+
+
+    /**
+     * @return The optional rooms to build
+     */
+    EnumSet<RoomType> rooms() {
+        return this.rooms;
+    }
+
+
+    /**
+     * @return The optional furniture to build on the first floor of the main hall
+     */
+    EnumSet<FurnitureType> mainHall() {
+        return this.mainHall;
+    }
+
+
+    /**
+     * @return The shrines to build in the cellar
+     */
+    EnumSet<FurnitureType> shrines() {
+        return this.shrines;
+    }
+
+
+    /**
+     * @return The trophies to mount in the trophy room, large and small
+     */
+    List<FurnitureType> trophies() {
+        return this.trophies;
+    }
+
+
+    /**
+     * @return The trophies to mount in the trophy room, in the order they
+     * are mounted
+     */
+    List<FurnitureType> sortedTrophies() {
+        List<FurnitureType> sorted = new ArrayList<>(this.trophies);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+
+    /**
+     * @return The furniture to build outside
+     */
+    EnumSet<FurnitureType> outside() {
+        return this.outside;
+    }
+
+
+    /**
+     * @param expense The expense to look up
+     * @return How many of the expense to buy
+     */
+    int expenseCount(Expense expense) {
+        return this.expenses[expense.ordinal()];
+    }
+
+
+    /**
+     * @param expense The expense to buy
+     * @param count   How many more of it to buy
+     */
+    void addExpense(Expense expense, int count) {
+        this.expenses[expense.ordinal()] += count;
+    }
+
+
+    /**
+     * Writes this spec out in full. Every list is written in a fixed order,
+     * so two specs that make the same choices are written the same way no
+     * matter what order the choices were given in
+     *
+     * @return This spec written the same way it is parsed
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("location=").append(this.location.name());
+        if (!this.location.isHomestead()) {
+            return new String(sb);
+        }
+        sb.append(" layout=").append(this.manor ? "manor" : "cottage");
+        appendList(sb, "rooms", this.rooms);
+        appendList(sb, "main_hall", this.mainHall);
+        appendList(sb, "shrines", this.shrines);
+        appendList(sb, "trophies", this.sortedTrophies());
+        appendList(sb, "outside", this.outside);
+        StringJoiner bought = new StringJoiner(",");
+        for (Expense expense : Expense.values()) {
+            int count = this.expenses[expense.ordinal()];
+            if (count > 0) {
+                bought.add(count == 1 ? expense.name() : expense.name() + ":" + count);
+            }
+        }
+        if (bought.length() > 0) {
+            sb.append(" expenses=").append(bought);
+        }
+        return new String(sb);
+    }
+
+
+    /**
+     * Appends key=a,b,c to a spec being written, if there is anything in the list
+     */
+    private static void appendList(StringBuilder sb, String key, Collection<? extends Enum<?>> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (Enum<?> value : values) {
+            joiner.add(value.name());
+        }
+        sb.append(' ').append(key).append('=').append(joiner);
+    }
+}
@@ -0,0 +1,386 @@
+package materialCounter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits the info files, or a line typed by the user, into lines and
+ * whitespace separated tokens without creating a String for every line and
+ * token the way Scanner and String.split() do. <br>
+ * A token is only ever a range of the text being read. Numbers are parsed
+ * straight from that range, and names are looked up in a {@link Symbols}
+ * table by comparing the range against the names in it, so reading a file
+ * of known names and amounts creates no objects at all. A String is only
+ * made for a name seen for the first time or for an error message. Anything
+ * up to and including a space is whitespace, so a line may end in \r\n
+ *
+ * @author Adam Cooper
+ */
+final class InfoTokenizer {
+
+    //fields
+    private final ByteBuffer bytes;
+    private final CharSequence chars;
+    private final int length;
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber;
+    private int tokenStart;
+    private int tokenEnd;
+
+
+    /**
+     * Constructor
+     *
+     * @param bytes The text to read, encoded as UTF-8, from its position to
+     *              its limit
+     */
+    InfoTokenizer(ByteBuffer bytes) {
+        this(bytes.slice(), null, bytes.remaining());
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param chars The text to read
+     */
+    InfoTokenizer(CharSequence chars) {
+        this(null, chars, chars.length());
+    }
+
+
+    private InfoTokenizer(ByteBuffer bytes, CharSequence chars, int length) {
+        this.bytes = bytes;
+        this.chars = chars;
+        this.length = length;
+        this.lineEnd = -1;
+    }
+
+
+    /**
+     * @return The character at an index, or the byte for text read as bytes
+     */
+    private int at(int index) {
+        return this.bytes != null ? this.bytes.get(index) & 0xFF : this.chars.charAt(index);
+    }
+
+
+    /**
+     * Moves to the start of the next line
+     *
+     * @return True if there was another line, false at the end of the text
+     */
+    boolean nextLine() {
+        int start = this.lineEnd + 1;
+        if (start > this.length || (start == this.length && this.lineNumber > 0)) {
+            return false;
+        }
+        int end = start;
+        while (end < this.length && this.at(end) != '\n') {
+            end++;
+        }
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.lineNumber++;
+        this.tokenStart = start;
+        this.tokenEnd = start;
+        return true;
+    }
+
+
+    /**
+     * @return The number of the current line, starting at 1
+     */
+    int lineNumber() {
+        return this.lineNumber;
+    }
+
+
+    /**
+     * Moves to the next token on the current line
+     *
+     * @return True if there was another token, false at the end of the line
+     */
+    boolean nextToken() {
+        int start = this.tokenEnd;
+        while (start < this.lineEnd && this.at(start) <= ' ') {
+            start++;
+        }
+        if (start == this.lineEnd) {
+            this.tokenStart = this.tokenEnd = start;
+            return false;
+        }
+        int end = start;
+        while (end < this.lineEnd && this.at(end) > ' ') {
+            end++;
+        }
+        this.tokenStart = start;
+        this.tokenEnd = end;
+        return true;
+    }
+
+
+    /**
+     * Drops a notator, such as the '-' before a room type, from the front of
+     * the current token. If nothing is left of the token, moves on to the
+     * next one, so the notator may be followed by whitespace
+     *
+     * @param notator The notator
+     * @return True if the token started with the notator, false otherwise
+     */
+    boolean skipNotator(char notator) {
+        if (this.tokenStart == this.tokenEnd || this.at(this.tokenStart) != notator) {
+            return false;
+        }
+        if (++this.tokenStart == this.tokenEnd) {
+            this.nextToken();
+        }
+        return true;
+    }
+
+
+    /**
+     * @return True if there is a current token, false if the line ran out
+     */
+    boolean hasToken() {
+        return this.tokenStart < this.tokenEnd;
+    }
+
+
+    /**
+     * Parses the current token as a whole number
+     *
+     * @return The number
+     * @throws NumberFormatException if the token isn't a number that fits in an int
+     */
+    int intToken() {
+        int i = this.tokenStart;
+        boolean negative = i < this.tokenEnd && this.at(i) == '-';
+        if (i < this.tokenEnd && (this.at(i) == '-' || this.at(i) == '+')) {
+            i++;
+        }
+        if (i == this.tokenEnd) {
+            throw new NumberFormatException("For input string: \"" + this.token() + "\"");
+        }
+        // accumulate negatively so Integer.MIN_VALUE fits
+        long value = 0;
+        for (; i < this.tokenEnd; i++) {
+            int digit = this.at(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + this.token() + "\"");
+            }
+            value = value * 10 - digit;
+            if (value < Integer.MIN_VALUE) {
+                throw new NumberFormatException("For input string: \"" + this.token() + "\"");
+            }
+        }
+        if (!negative && value == Integer.MIN_VALUE) {
+            throw new NumberFormatException("For input string: \"" + this.token() + "\"");
+        }
+        return (int) (negative ? value : -value);
+    }
+
+
+    /**
+     * Looks the current token up in a table of names
+     *
+     * @param symbols The table
+     * @return The id of the name, or -1 if it isn't in the table
+     */
+    int find(Symbols symbols) {
+        return symbols.find(this, this.tokenStart, this.tokenEnd);
+    }
+
+
+    /**
+     * Looks the current token up in a table of names, adding it if it isn't
+     * there yet
+     *
+     * @param symbols The table
+     * @return The id of the name
+     */
+    int intern(Symbols symbols) {
+        int id = this.find(symbols);
+        return id >= 0 ? id : symbols.add(this.token());
+    }
+
+
+    /**
+     * @return The current token as a String
+     */
+    String token() {
+        return this.text(this.tokenStart, this.tokenEnd);
+    }
+
+
+    /**
+     * @return The current line as a String, without leading or trailing
+     * whitespace
+     */
+    String line() {
+        int start = this.lineStart;
+        int end = this.lineEnd;
+        while (start < end && this.at(start) <= ' ') {
+            start++;
+        }
+        while (end > start && this.at(end - 1) <= ' ') {
+            end--;
+        }
+        return this.text(start, end);
+    }
+
+
+    private String text(int start, int end) {
+        if (this.chars != null) {
+            return this.chars.subSequence(start, end).toString();
+        }
+        byte[] text = new byte[end - start];
+        this.bytes.get(start, text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * A table of names, each with the id it was added with, that tokens can
+     * be looked up in without making a String of them. Ids are handed out in
+     * the order names are added, starting at 0
+     */
+    static final class Symbols {
+
+        //fields
+        private byte[][] keys;
+        private int[] ids;
+        private String[] names;
+        private int size;
+
+
+        /**
+         * Constructor
+         *
+         * @param capacity The number of names expected
+         */
+        Symbols(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) * 2;
+            this.keys = new byte[slots][];
+            this.ids = new int[slots];
+            this.names = new String[Math.max(4, capacity)];
+            this.size = 0;
+        }
+
+
+        /**
+         * @param values The constants of an enum
+         * @return A table of the constants' names, with their ordinals as ids
+         */
+        static Symbols of(Enum<?>[] values) {
+            Symbols symbols = new Symbols(values.length);
+            for (Enum<?> value : values) {
+                symbols.add(value.name());
+            }
+            return symbols;
+        }
+
+
+        /**
+         * Adds a name that isn't in the table yet
+         *
+         * @param name The name
+         * @return The id it was given
+         */
+        int add(String name) {
+            if (2 * (this.size + 1) > this.keys.length) {
+                this.grow();
+            }
+            byte[] key = name.getBytes(StandardCharsets.UTF_8);
+            int slot = this.slot(key);
+            this.keys[slot] = key;
+            this.ids[slot] = this.size;
+            if (this.size == this.names.length) {
+                this.names = Arrays.copyOf(this.names, 2 * this.size);
+            }
+            this.names[this.size] = name;
+            return this.size++;
+        }
+
+
+        /**
+         * @return The number of names in the table
+         */
+        int size() {
+            return this.size;
+        }
+
+
+        /**
+         * @return Every name in the table, indexed by id
+         */
+        String[] names() {
+            return Arrays.copyOf(this.names, this.size);
+        }
+
+
+        private int find(InfoTokenizer text, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + (byte) text.at(i);
+            }
+            int mask = this.keys.length - 1;
+            for (int slot = spread(hash) & mask; this.keys[slot] != null; slot = (slot + 1) & mask) {
+                byte[] key = this.keys[slot];
+                if (key.length == end - start && matches(key, text, start)) {
+                    return this.ids[slot];
+                }
+            }
+            return -1;
+        }
+
+
+        private static boolean matches(byte[] key, InfoTokenizer text, int start) {
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != (byte) text.at(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+
+        /**
+         * @return The free slot for a key
+         */
+        private int slot(byte[] key) {
+            int hash = 1;
+            for (byte b : key) {
+                hash = 31 * hash + b;
+            }
+            int mask = this.keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (this.keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+
+        private void grow() {
+            byte[][] keys = this.keys;
+            int[] ids = this.ids;
+            this.keys = new byte[2 * keys.length][];
+            this.ids = new int[2 * keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    int slot = this.slot(keys[i]);
+                    this.keys[slot] = keys[i];
+                    this.ids[slot] = ids[i];
+                }
+            }
+        }
+
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package materialCounter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks the materials the player already has against the materials a plan
+ * needs, and how much of each is still missing. <br>
+ * The shortfall of every material is kept up to date as the inventory and
+ * the plan change, so each change only touches the materials it changes,
+ * and reading the shortfall never adds anything up. An inventory file has
+ * one material per line, followed by the amount the player has:
+ * <pre>
+ * Sawn_Log 40
+ * Iron Fittings 12   # spaces work as well as underscores
+ * </pre>
+ *
+ * @author Adam Cooper
+ */
+final class Inventory {
+
+    //fields
+    private final MaterialCatalog catalog;
+    private final int[] required;
+    private final int[] have;
+    private final int[] shortfall;
+    private long totalShortfall;
+    private int missingMaterials;
+
+
+    /**
+     * Constructor <br>
+     * Starts with nothing in the inventory
+     *
+     * @param required Everything needed to build the plan, indexed by material id
+     * @param catalog  The catalog the plan was built from
+     */
+    Inventory(int[] required, MaterialCatalog catalog) {
+        this.catalog = catalog;
+        this.required = new int[catalog.materialCount()];
+        this.have = new int[catalog.materialCount()];
+        this.shortfall = new int[catalog.materialCount()];
+        this.totalShortfall = 0;
+        this.missingMaterials = 0;
+        this.require(required, 1);
+    }
+
+
+    /**
+     * Reads the amounts in an inventory file into this inventory. Invalid
+     * lines are skipped
+     *
+     * @param file   The inventory file
+     * @param errors A list to add a message to for every invalid line
+     * @throws IOException if the file can't be read
+     */
+    void read(Path file, List<String> errors) throws IOException {
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            int comment = line.indexOf(HouseSpec.COMMENT);
+            String[] tokens = Room.fixSplit((comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s"));
+            if (tokens.length == 0) {
+                continue;
+            }
+            if (tokens.length < 2) {
+                errors.add("line " + lineNumber + ": missing amount for \'" + tokens[0] + "\'");
+                continue;
+            }
+            String name = String.join("_", Arrays.copyOf(tokens, tokens.length - 1));
+            int id = this.catalog.materialId(name);
+            if (id < 0) {
+                errors.add("line " + lineNumber + ": no plan needs \'" + name + "\'");
+                continue;
+            }
+            try {
+                this.add(id, Integer.parseInt(tokens[tokens.length - 1]));
+            } catch (NumberFormatException e) {
+                errors.add("line " + lineNumber + ": bad amount \'" + tokens[tokens.length - 1] + "\'");
+            }
+        }
+    }
+
+
+    /**
+     * Changes the amount of one material in the inventory
+     *
+     * @param id    The id of the material
+     * @param delta The amount gained, or lost if negative
+     */
+    void add(int id, int delta) {
+        this.have[id] += delta;
+        this.update(id);
+    }
+
+
+    /**
+     * Changes the amount of one material in the inventory
+     *
+     * @param material The name of the material
+     * @param delta    The amount gained, or lost if negative
+     * @return False if no plan needs the material, true otherwise
+     */
+    boolean add(String material, int delta) {
+        int id = this.catalog.materialId(material);
+        if (id < 0) {
+            return false;
+        }
+        this.add(id, delta);
+        return true;
+    }
+
+
+    /**
+     * Changes what the plan needs, as when furniture is added to or taken
+     * out of a room
+     *
+     * @param vector The amounts the plan needs, indexed by material id
+     * @param times  The number of times to add them, or to take them away if negative
+     */
+    void require(int[] vector, int times) {
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.required[id] += vector[id] * times;
+                this.update(id);
+            }
+        }
+    }
+
+
+    /**
+     * Works out the shortfall of one material again after it changes
+     */
+    private void update(int id) {
+        int before = this.shortfall[id];
+        int after = Math.max(0, this.required[id] - this.have[id]);
+        this.shortfall[id] = after;
+        this.totalShortfall += after - before;
+        if ((before > 0) != (after > 0)) {
+            this.missingMaterials += after > 0 ? 1 : -1;
+        }
+    }
+
+
+    /**
+     * @param id The id of a material
+     * @return The amount of the material the player has
+     */
+    int have(int id) {
+        return this.have[id];
+    }
+
+
+    /**
+     * @return How much more of each material is needed, indexed by material
+     * id, which must not be modified
+     */
+    int[] shortfall() {
+        return this.shortfall;
+    }
+
+
+    /**
+     * @return The total amount of every material still needed
+     */
+    long totalShortfall() {
+        return this.totalShortfall;
+    }
+
+
+    /**
+     * @return The number of materials that the player doesn't have enough of
+     */
+    int missingMaterials() {
+        return this.missingMaterials;
+    }
+
+
+    /**
+     * @return True if the player has everything the plan needs
+     */
+    boolean isComplete() {
+        return this.missingMaterials == 0;
+    }
+}
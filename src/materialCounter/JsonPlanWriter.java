@@ -0,0 +1,199 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+
+import java.io.IOException;
+
+/**
+ * Writes plans as JSON so they can be loaded by other programs. Each house,
+ * and the shopping list of a batch, is written as a single object on its own
+ * line, so a batch can be read one plan at a time. Every object is written
+ * straight to the Appendable, and every material name is escaped once up
+ * front. A house looks like:
+ * <pre>
+ * {"plan":1,"line":3,"spec":"location=...","location":"Windstad_Manor",
+ *  "rooms":[{"room":"Outside","materials":{...},
+ *            "furniture":[{"type":"Garden","count":1,"materials":{"Sawn_Log":1}}],
+ *            "totals":{...}}],
+ *  "expenses":[{"expense":"Chicken","count":3,"gold":75}],
+ *  "plot":{"gold":5000},
+ *  "totals":{"Gold":5075,"Sawn_Log":1}}
+ * </pre>
+ * where plan and line are only given for plans in a batch, and a house that
+ * isn't a homestead has a deed instead of a plot. The shopping list is
+ * {"plans":2,"shopping_list":{...}} and what is still missing from the
+ * inventory is {"missing":1,"total":3,"shortfall":{"Nails":3}}. A plan
+ * broken down into raw materials is {"raw":{...},"crafted":{...}}
+ *
+ * @author Adam Cooper
+ */
+final class JsonPlanWriter implements PlanWriter {
+
+    //fields
+    private final Appendable out;
+    private final String[] materials;
+
+
+    /**
+     * Constructor
+     *
+     * @param out Where to write the objects
+     */
+    JsonPlanWriter(Appendable out) {
+        this(out, MaterialCatalog.get());
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param out     Where to write the objects
+     * @param catalog The catalog the material vectors written were built from
+     */
+    JsonPlanWriter(Appendable out, MaterialCatalog catalog) {
+        this.out = out;
+        this.materials = new String[catalog.materialCount()];
+        for (int id = 0; id < this.materials.length; id++) {
+            this.materials[id] = quote(catalog.materialName(id));
+        }
+    }
+
+
+    /**
+     * @param value A string
+     * @return The string as a JSON string, in quotes
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return new String(sb.append('"'));
+    }
+
+
+    @Override
+    public void writeHouse(House house) throws IOException {
+        this.out.append('{');
+        this.writeBody(house, house.getTotalMaterialVector());
+    }
+
+
+    @Override
+    public void writePlan(int number, int line, House house, int[] totals) throws IOException {
+        this.out.append("{\"plan\":").append(Integer.toString(number))
+                .append(",\"line\":").append(Integer.toString(line)).append(',');
+        this.writeBody(house, totals);
+    }
+
+
+    @Override
+    public void writeShoppingList(int plans, int[] totals) throws IOException {
+        this.out.append("{\"plans\":").append(Integer.toString(plans)).append(",\"shopping_list\":");
+        this.writeMaterials(totals);
+        this.out.append("}\n");
+    }
+
+
+    @Override
+    public void writeShortfall(Inventory inventory) throws IOException {
+        this.out.append("{\"missing\":").append(Integer.toString(inventory.missingMaterials()))
+                .append(",\"total\":").append(Long.toString(inventory.totalShortfall())).append(",\"shortfall\":");
+        this.writeMaterials(inventory.shortfall());
+        this.out.append("}\n");
+    }
+
+
+    @Override
+    public void writeRawMaterials(RecipeBook.Bill bill) throws IOException {
+        this.out.append("{\"raw\":");
+        this.writeBill(bill.raw(), bill.recipes());
+        this.out.append(",\"crafted\":");
+        this.writeBill(bill.crafted(), bill.recipes());
+        this.out.append("}\n");
+    }
+
+
+    /**
+     * Writes everything in a house object after its opening brace
+     */
+    private void writeBody(House house, int[] totals) throws IOException {
+        Location location = house.getLocation();
+        this.out.append("\"spec\":").append(quote(house.getSpec().toString()))
+                .append(",\"location\":\"").append(location.name()).append("\",\"rooms\":[");
+        boolean first = true;
+        for (Room room : house.getRooms()) {
+            this.out.append(first ? "" : ",").append("{\"room\":\"").append(room.getName()).append("\",\"materials\":");
+            this.writeMaterials(room.getMaterialVector());
+            this.out.append(",\"furniture\":[");
+            boolean firstPiece = true;
+            for (Room.Furniture piece : room.getPieces()) {
+                this.out.append(firstPiece ? "" : ",").append("{\"type\":\"").append(piece.getName())
+                        .append("\",\"count\":").append(Integer.toString(piece.amount())).append(",\"materials\":");
+                this.writeMaterials(piece.getMaterialVector());
+                this.out.append('}');
+                firstPiece = false;
+            }
+            this.out.append("],\"totals\":");
+            this.writeMaterials(room.getTotalMaterialVector());
+            this.out.append('}');
+            first = false;
+        }
+        this.out.append("],\"expenses\":[");
+        first = true;
+        for (Expense expense : Expense.values()) {
+            int count = house.expenseCount(expense);
+            if (count > 0) {
+                this.out.append(first ? "" : ",").append("{\"expense\":\"").append(expense.name())
+                        .append("\",\"count\":").append(Integer.toString(count))
+                        .append(",\"gold\":").append(Integer.toString(expense.totalCost(count))).append('}');
+                first = false;
+            }
+        }
+        this.out.append(location.isHomestead() ? "],\"plot\":{\"gold\":" : "],\"deed\":{\"gold\":")
+                .append(Integer.toString(location.cost())).append("},\"totals\":");
+        this.writeMaterials(totals);
+        this.out.append("}\n");
+    }
+
+
+    /**
+     * Writes an object with the amount of every material in a material vector
+     */
+    private void writeMaterials(int[] vector) throws IOException {
+        this.out.append('{');
+        boolean first = true;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.out.append(first ? "" : ",").append(this.materials[id]).append(':').append(Integer.toString(vector[id]));
+                first = false;
+            }
+        }
+        this.out.append('}');
+    }
+
+
+    /**
+     * Writes an object with the amount of every material in a vector of a
+     * bill, which can have materials the catalog doesn't
+     */
+    private void writeBill(int[] vector, RecipeBook recipes) throws IOException {
+        this.out.append('{');
+        boolean first = true;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.out.append(first ? "" : ",").append(quote(recipes.materialName(id))).append(':').append(Integer.toString(vector[id]));
+                first = false;
+            }
+        }
+        this.out.append('}');
+    }
+}
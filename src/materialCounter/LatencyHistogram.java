@@ -0,0 +1,132 @@
+package materialCounter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how long requests take, so percentiles can be read at any time
+ * without keeping every latency. <br>
+ * Latencies are counted in microseconds, in buckets that are exact below
+ * 16 &micro;s and then split every power of two into 16 buckets, so a
+ * percentile is never off by more than about 6%. Recording is a single
+ * atomic increment, so any number of threads can record at once
+ *
+ * @author Adam Cooper
+ */
+final class LatencyHistogram {
+
+    //fields
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong max;
+
+
+    /**
+     * Constructor
+     */
+    LatencyHistogram() {
+        this.buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        this.count = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+
+    /**
+     * Counts one latency
+     *
+     * @param nanos How long the request took, in nanoseconds
+     */
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        this.buckets.incrementAndGet(bucket(micros));
+        this.count.incrementAndGet();
+        this.max.accumulateAndGet(micros, Math::max);
+    }
+
+
+    /**
+     * @return The number of latencies counted
+     */
+    long count() {
+        return this.count.get();
+    }
+
+
+    /**
+     * @return The longest latency counted, in microseconds
+     */
+    long max() {
+        return this.max.get();
+    }
+
+
+    /**
+     * @param percentile The percentile to find, from 0 to 100
+     * @return The latency that percentile of requests took no longer than,
+     * in microseconds, or 0 if nothing has been counted
+     */
+    long percentile(double percentile) {
+        long total = 0;
+        long[] counts = new long[this.buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highest(i), this.max());
+            }
+        }
+        return this.max();
+    }
+
+
+    /**
+     * @return The bucket a latency is counted in
+     */
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+
+    /**
+     * @return The longest latency counted in a bucket
+     */
+    private static long highest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long width = 1L << (exponent - SUB_BITS);
+        return (SUB_BUCKETS + bucket % SUB_BUCKETS) * width + width - 1;
+    }
+
+
+    /**
+     * @return The count, p50, p99 and max latencies as a JSON object
+     */
+    String toJson() {
+        return "{\"count\":" + this.count() + ",\"p50_us\":" + this.percentile(50) + ",\"p99_us\":" + this.percentile(99)
+                + ",\"max_us\":" + this.max() + "}";
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("%d requests, p50 %d us, p99 %d us, max %d us",
+                this.count(), this.percentile(50), this.percentile(99), this.max());
+    }
+}
@@ -0,0 +1,650 @@
+package materialCounter;
+
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Class to hold the contents of the info files. The catalog is loaded the
+ * first time it is used, and every room and piece of furniture reads its
+ * properties from here afterwards. <br>
+ * The info files are compiled into the program when it is built, see
+ * {@link CatalogSource}, so the first catalog is built from those tables
+ * without reading any files. The info files are only read when another
+ * directory is asked for with -DmaterialCounter.info=directory, or when the
+ * room and furniture types have changed since the tables were generated.
+ * Every build generates the tables again from the info files, so an edit to
+ * them is picked up by rebuilding, or straight away by --serve, which
+ * reloads the catalog whenever they change. <br>
+ * A catalog never changes once it is built. When the info files change the
+ * catalog is reloaded by building a new one and swapping it in, so anything
+ * that holds on to the catalog it started with keeps seeing the same
+ * properties, and reading the catalog never needs a lock
+ *
+ * @author Adam Cooper
+ */
+final class MaterialCatalog {
+
+    //fields
+    private final String[] materials;
+    private final String[] displayNames;
+    private final HashMap<String, Integer> materialIds;
+    private final EnumMap<RoomType, RoomInfo> rooms;
+    private final EnumMap<FurnitureType, Recipe> furniture;
+    static final String GOLD = "Gold";
+    static final String ROOM_FILE = "rooms.info";
+    static final String FURNITURE_FILE = "furniture.info";
+    static final String ROOM_TYPE_NOTATOR = "-";
+    static final String FURNITURE_TYPE_NOTATOR = "~";
+    static final String DIRECTORY_PROPERTY = "materialCounter.info";
+    private static final InfoTokenizer.Symbols ROOM_TYPES = InfoTokenizer.Symbols.of(RoomType.values());
+    private static final InfoTokenizer.Symbols FURNITURE_TYPES = InfoTokenizer.Symbols.of(FurnitureType.values());
+    private static final int BAD_AMOUNT = Integer.MIN_VALUE;
+    private static final AtomicReference<MaterialCatalog> CATALOG = new AtomicReference<>(loadFirst());
+
+
+    /**
+     * Constructor <br>
+     * Rooms and furniture that need exactly the same materials are given the
+     * same vector, so the catalog only holds one copy of each
+     *
+     * @param materials The name of every material, indexed by id
+     * @param rooms     The properties of every room type
+     * @param furniture The recipe of every furniture type
+     */
+    MaterialCatalog(String[] materials, EnumMap<RoomType, RoomInfo> rooms, EnumMap<FurnitureType, int[]> furniture) {
+        this.materials = materials;
+        this.displayNames = new String[materials.length];
+        this.materialIds = new HashMap<>();
+        for (int id = 0; id < materials.length; id++) {
+            this.materialIds.put(materials[id], id);
+            this.displayNames[id] = Names.format(materials[id]);
+        }
+        HashMap<Recipe, Recipe> recipes = new HashMap<>();
+        HashMap<List<Map.Entry<FurnitureType, Integer>>, List<Map.Entry<FurnitureType, Integer>>> pieces = new HashMap<>();
+        this.rooms = new EnumMap<>(RoomType.class);
+        for (Map.Entry<RoomType, RoomInfo> room : rooms.entrySet()) {
+            RoomInfo info = room.getValue();
+            Recipe shared = recipes.computeIfAbsent(new Recipe(info.materials()), r -> r);
+            this.rooms.put(room.getKey(), new RoomInfo(shared.amounts, pieces.computeIfAbsent(info.furniture(), p -> p)));
+        }
+        this.furniture = new EnumMap<>(FurnitureType.class);
+        for (Map.Entry<FurnitureType, int[]> recipe : furniture.entrySet()) {
+            this.furniture.put(recipe.getKey(), recipes.computeIfAbsent(new Recipe(recipe.getValue()), r -> r));
+        }
+    }
+
+
+    /**
+     * @return The current catalog, which new houses are built from
+     */
+    static MaterialCatalog get() {
+        return CATALOG.get();
+    }
+
+
+    /**
+     * Parses the info files again and, if they are valid, makes the new
+     * catalog the current one. Houses already being built keep the catalog
+     * they started with
+     *
+     * @param directory The directory containing the info files
+     * @param errors    A list to add a message to for every problem found,
+     *                  in which case the current catalog is kept
+     * @return True if the new catalog is now the current one, false otherwise
+     */
+    static boolean reload(String directory, List<String> errors) {
+        List<String> found = new ArrayList<>();
+        MaterialCatalog catalog = parse(directory, found);
+        if (!found.isEmpty()) {
+            errors.addAll(found);
+            return false;
+        }
+        CATALOG.set(catalog);
+        return true;
+    }
+
+
+    /**
+     * Finds the directory with all resources in it: the one given with
+     * -DmaterialCounter.info=directory, else ./info if it has the info files,
+     * else the info directory of the checkout the program was built in, so
+     * the program can be run from any directory
+     *
+     * @return The directory with all resources in it as a string
+     */
+    static String getResourceDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            return directory;
+        }
+        Path local = Paths.get(System.getProperty("user.dir"), "info");
+        if (Files.isRegularFile(local.resolve(ROOM_FILE))) {
+            return local.toString();
+        }
+        // the classes are in target/classes, or the jar is in target
+        CodeSource code = MaterialCatalog.class.getProtectionDomain().getCodeSource();
+        if (code != null) {
+            try {
+                for (Path dir = Paths.get(code.getLocation().toURI()); dir != null; dir = dir.getParent()) {
+                    if (Files.isRegularFile(dir.resolve("info").resolve(ROOM_FILE))) {
+                        return dir.resolve("info").toString();
+                    }
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not on the file system, so there is nowhere else to look
+            }
+        }
+        return local.toString();
+    }
+
+
+    /**
+     * Builds the first catalog, from the tables compiled into the program
+     * unless a directory was asked for or the tables are out of date
+     *
+     * @return The loaded catalog
+     */
+    private static MaterialCatalog loadFirst() {
+        if (System.getProperty(DIRECTORY_PROPERTY) == null) {
+            Metrics.CatalogParseEvent event = new Metrics.CatalogParseEvent();
+            event.begin();
+            long start = System.nanoTime();
+            MaterialCatalog catalog = builtIn();
+            if (catalog != null) {
+                record(event, start, CatalogSource.CLASS_NAME, true, catalog, 0);
+                return catalog;
+            }
+        }
+        return load(getResourceDirectory());
+    }
+
+
+    /**
+     * Builds the catalog from the tables compiled into the program
+     *
+     * @return The catalog, or null if the tables were generated against
+     * different room and furniture types
+     */
+    static MaterialCatalog builtIn() {
+        if (GeneratedCatalog.fingerprint() != BinaryCatalog.fingerprint()) {
+            return null;
+        }
+        String[] materials = GeneratedCatalog.MATERIALS.clone();
+        FurnitureType[] furnitureTypes = FurnitureType.values();
+        EnumMap<RoomType, RoomInfo> rooms = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            int[] pairs = GeneratedCatalog.ROOM_MATERIALS[type.ordinal()];
+            int[] pieces = GeneratedCatalog.ROOM_FURNITURE[type.ordinal()];
+            if (pairs == null) {
+                continue;
+            }
+            List<Map.Entry<FurnitureType, Integer>> furniture = new ArrayList<>(pieces.length / 2);
+            for (int i = 0; i < pieces.length; i += 2) {
+                furniture.add(Map.entry(furnitureTypes[pieces[i]], pieces[i + 1]));
+            }
+            rooms.put(type, new RoomInfo(vector(pairs, materials.length), furniture));
+        }
+        EnumMap<FurnitureType, int[]> recipes = new EnumMap<>(FurnitureType.class);
+        for (FurnitureType type : furnitureTypes) {
+            int[] pairs = GeneratedCatalog.FURNITURE_MATERIALS[type.ordinal()];
+            if (pairs != null) {
+                recipes.put(type, vector(pairs, materials.length));
+            }
+        }
+        return new MaterialCatalog(materials, rooms, recipes);
+    }
+
+
+    /**
+     * Expands (id, amount) pairs into a material vector
+     */
+    private static int[] vector(int[] pairs, int materialCount) {
+        int[] vector = new int[materialCount];
+        for (int i = 0; i < pairs.length; i += 2) {
+            vector[pairs[i]] = pairs[i + 1];
+        }
+        return vector;
+    }
+
+
+    /**
+     * Loads the catalog from the given directory, preferring the compiled
+     * catalog file if it is up to date with the info files
+     *
+     * @param directory The directory containing the info files
+     * @return The loaded catalog
+     */
+    static MaterialCatalog load(String directory) {
+        if (BinaryCatalog.isCurrent(directory)) {
+            Metrics.CatalogParseEvent event = new Metrics.CatalogParseEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Metrics.count(Metrics.Counter.INFO_FILES_OPENED);
+            MaterialCatalog catalog = BinaryCatalog.read(Paths.get(directory, BinaryCatalog.CATALOG_FILE));
+            record(event, start, directory, true, catalog, catalog == null ? 1 : 0);
+            if (catalog != null) {
+                return catalog;
+            }
+        }
+        List<String> errors = new ArrayList<>();
+        MaterialCatalog catalog = parse(directory, errors);
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            System.exit(1);
+        }
+        return catalog;
+    }
+
+
+    /**
+     * Parses the room and furniture files found in the given directory and
+     * checks that they agree with each other
+     *
+     * @param directory The directory containing the info files
+     * @param errors    A list to add a message to for every problem found
+     * @return The parsed catalog, which is incomplete if any errors were found
+     */
+    static MaterialCatalog parse(String directory, List<String> errors) {
+        Metrics.CatalogParseEvent event = new Metrics.CatalogParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int before = errors.size();
+        // material ids are handed out in order of first appearance, with gold first
+        InfoTokenizer.Symbols ids = new InfoTokenizer.Symbols(128);
+        ids.add(GOLD);
+        EnumMap<RoomType, int[]> roomMaterials = new EnumMap<>(RoomType.class);
+        EnumMap<RoomType, List<Map.Entry<FurnitureType, Integer>>> roomFurniture = new EnumMap<>(RoomType.class);
+        EnumMap<FurnitureType, int[]> furniture = new EnumMap<>(FurnitureType.class);
+        // line numbers of each furniture reference in the room file
+        Map<FurnitureType, List<Integer>> references = new EnumMap<>(FurnitureType.class);
+        InfoTokenizer tokens = open(directory, ROOM_FILE, errors);
+        if (tokens != null) {
+            parseRooms(tokens, ids, roomMaterials, roomFurniture, references, errors);
+        }
+        tokens = open(directory, FURNITURE_FILE, errors);
+        if (tokens != null) {
+            parseFurniture(tokens, ids, furniture, errors);
+        }
+        for (Map.Entry<FurnitureType, List<Integer>> reference : references.entrySet()) {
+            if (!furniture.containsKey(reference.getKey())) {
+                for (int lineNumber : reference.getValue()) {
+                    errors.add(location(ROOM_FILE, lineNumber) + "furniture \'" + reference.getKey().name() + "\' is not defined in \'" + FURNITURE_FILE + "\'");
+                }
+            }
+        }
+        for (RoomType type : RoomType.values()) {
+            if (!roomMaterials.containsKey(type)) {
+                errors.add(ROOM_FILE + ": missing room type \'" + type.name() + "\'");
+            }
+        }
+        for (FurnitureType type : FurnitureType.values()) {
+            if (!furniture.containsKey(type)) {
+                errors.add(FURNITURE_FILE + ": missing furniture type \'" + type.name() + "\'");
+            }
+        }
+
+        // now that every material has an id, give every vector the same length
+        EnumMap<RoomType, RoomInfo> rooms = new EnumMap<>(RoomType.class);
+        for (RoomType type : roomMaterials.keySet()) {
+            rooms.put(type, new RoomInfo(Arrays.copyOf(roomMaterials.get(type), ids.size()), roomFurniture.get(type)));
+        }
+        furniture.replaceAll((type, recipe) -> Arrays.copyOf(recipe, ids.size()));
+        MaterialCatalog catalog = new MaterialCatalog(ids.names(), rooms, furniture);
+        record(event, start, directory, false, catalog, errors.size() - before);
+        return catalog;
+    }
+
+
+    /**
+     * Records the time it took to read a catalog, and commits its event if
+     * a flight recording is running
+     */
+    private static void record(Metrics.CatalogParseEvent event, long start, String directory, boolean compiled,
+                               MaterialCatalog catalog, int errors) {
+        Metrics.time(Metrics.Timer.CATALOG_PARSE, start);
+        if (event.shouldCommit()) {
+            event.directory = directory;
+            event.compiled = compiled;
+            event.materials = catalog == null ? 0 : catalog.materialCount();
+            event.errors = errors;
+            event.commit();
+        }
+    }
+
+
+    /**
+     * Reads one of the info files
+     *
+     * @param directory The directory containing the file
+     * @param fileName  The name of the file to read
+     * @param errors    The list to report a missing file to
+     * @return A tokenizer over the file, or null if it can't be read
+     */
+    private static InfoTokenizer open(String directory, String fileName, List<String> errors) {
+        try {
+            InfoTokenizer tokens = new InfoTokenizer(ByteBuffer.wrap(Files.readAllBytes(Paths.get(directory, fileName))));
+            Metrics.count(Metrics.Counter.INFO_FILES_OPENED);
+            return tokens;
+        } catch (IOException e) {
+            errors.add("Missing info file \'" + fileName + "\'!");
+            return null;
+        }
+    }
+
+
+    /**
+     * @return The prefix of an error message for a line of an info file
+     */
+    private static String location(String fileName, int lineNumber) {
+        return fileName + ":" + lineNumber + ": ";
+    }
+
+
+    /**
+     * Reads every room block in the room file
+     *
+     * @param tokens     A tokenizer over the room file
+     * @param ids        The ids given out to materials so far
+     * @param materials  The map to add each room's raw materials to
+     * @param furniture  The map to add each room's furniture to
+     * @param references The map to record each furniture reference in
+     * @param errors     The list to add formatting errors to
+     */
+    private static void parseRooms(InfoTokenizer tokens, InfoTokenizer.Symbols ids, EnumMap<RoomType, int[]> materials, EnumMap<RoomType, List<Map.Entry<FurnitureType, Integer>>> furniture, Map<FurnitureType, List<Integer>> references, List<String> errors) {
+        RoomType[] roomTypes = RoomType.values();
+        FurnitureType[] furnitureTypes = FurnitureType.values();
+        RoomType current = null;
+        int[] roomMaterials = null;
+        List<Map.Entry<FurnitureType, Integer>> pieces = null;
+        while (tokens.nextLine()) {
+            int lineNumber = tokens.lineNumber();
+            if (!tokens.nextToken()) {
+                continue;
+            }
+            if (tokens.skipNotator(ROOM_TYPE_NOTATOR.charAt(0))) {
+                if (current != null) {
+                    materials.put(current, roomMaterials);
+                    furniture.put(current, pieces);
+                }
+                int type = tokens.find(ROOM_TYPES);
+                current = type >= 0 ? roomTypes[type] : null;
+                if (current == null) {
+                    errors.add(location(ROOM_FILE, lineNumber) + "unknown room type \'" + tokens.token() + "\'");
+                }
+                roomMaterials = new int[ids.size()];
+                pieces = new ArrayList<>();
+            } else if (roomMaterials == null) {
+                errors.add(location(ROOM_FILE, lineNumber) + "entry outside of any room");
+            } else if (tokens.skipNotator(FURNITURE_TYPE_NOTATOR.charAt(0))) {
+                if (!tokens.hasToken()) {
+                    errors.add(location(ROOM_FILE, lineNumber) + "missing furniture type");
+                    continue;
+                }
+                int type = tokens.find(FURNITURE_TYPES);
+                if (type < 0) {
+                    errors.add(location(ROOM_FILE, lineNumber) + "unknown furniture type \'" + tokens.token() + "\'");
+                    continue;
+                }
+                int amount = parseAmount(tokens, ROOM_FILE, errors);
+                if (amount != BAD_AMOUNT) {
+                    pieces.add(Map.entry(furnitureTypes[type], amount));
+                    references.computeIfAbsent(furnitureTypes[type], t -> new ArrayList<>()).add(lineNumber);
+                }
+            } else { // raw materials instead of furniture
+                int id = tokens.intern(ids);
+                int amount = parseAmount(tokens, ROOM_FILE, errors);
+                if (amount != BAD_AMOUNT) {
+                    roomMaterials = fit(roomMaterials, id);
+                    roomMaterials[id] = amount;
+                }
+            }
+        }
+        if (current != null) {
+            materials.put(current, roomMaterials);
+            furniture.put(current, pieces);
+        }
+    }
+
+
+    /**
+     * Reads every furniture block in the furniture file
+     *
+     * @param tokens    A tokenizer over the furniture file
+     * @param ids       The ids given out to materials so far
+     * @param furniture The map to add each recipe to
+     * @param errors    The list to add formatting errors to
+     */
+    private static void parseFurniture(InfoTokenizer tokens, InfoTokenizer.Symbols ids, EnumMap<FurnitureType, int[]> furniture, List<String> errors) {
+        FurnitureType[] furnitureTypes = FurnitureType.values();
+        FurnitureType current = null;
+        int[] materials = null;
+        while (tokens.nextLine()) {
+            int lineNumber = tokens.lineNumber();
+            if (!tokens.nextToken()) {
+                continue;
+            }
+            if (tokens.skipNotator(FURNITURE_TYPE_NOTATOR.charAt(0))) {
+                if (current != null) {
+                    furniture.put(current, materials);
+                }
+                int type = tokens.find(FURNITURE_TYPES);
+                current = type >= 0 ? furnitureTypes[type] : null;
+                if (current == null) {
+                    errors.add(location(FURNITURE_FILE, lineNumber) + "unknown furniture type \'" + tokens.token() + "\'");
+                }
+                materials = new int[ids.size()];
+            } else if (materials == null) {
+                errors.add(location(FURNITURE_FILE, lineNumber) + "material outside of any furniture");
+            } else {
+                int id = tokens.intern(ids);
+                if (!tokens.nextToken()) {
+                    errors.add(location(FURNITURE_FILE, lineNumber) + "missing amount for \'" + tokens.line() + "\'");
+                    continue;
+                }
+                int amount = amount(tokens, FURNITURE_FILE, errors);
+                if (amount != BAD_AMOUNT) {
+                    materials = fit(materials, id);
+                    materials[id] += amount;
+                }
+            }
+        }
+        if (current != null) {
+            furniture.put(current, materials);
+        }
+    }
+
+
+    /**
+     * Reads the amount after the current token, which defaults to 1 if the
+     * line doesn't give one
+     *
+     * @return The amount, or BAD_AMOUNT if it isn't a number
+     */
+    private static int parseAmount(InfoTokenizer tokens, String fileName, List<String> errors) {
+        return tokens.nextToken() ? amount(tokens, fileName, errors) : 1;
+    }
+
+
+    /**
+     * Reads the current token as an amount
+     *
+     * @return The amount, or BAD_AMOUNT if it isn't a number
+     */
+    private static int amount(InfoTokenizer tokens, String fileName, List<String> errors) {
+        try {
+            return tokens.intToken();
+        } catch (NumberFormatException e) {
+            errors.add(location(fileName, tokens.lineNumber()) + "bad amount \'" + tokens.token() + "\'");
+            return BAD_AMOUNT;
+        }
+    }
+
+
+    /**
+     * Grows a material vector if needed so that it can hold the given id
+     */
+    private static int[] fit(int[] vector, int id) {
+        return id < vector.length ? vector : Arrays.copyOf(vector, id + 1);
+    }
+
+
+    /**
+     * @return The number of distinct materials in the catalog, which is the
+     * length of every material vector
+     */
+    int materialCount() {
+        return this.materials.length;
+    }
+
+
+    /**
+     * @param id The id of a material
+     * @return The name of the material
+     */
+    String materialName(int id) {
+        return this.materials[id];
+    }
+
+
+    /**
+     * @param id The id of a material
+     * @return The name of the material as it is shown to the user
+     */
+    String displayName(int id) {
+        return this.displayNames[id];
+    }
+
+
+    /**
+     * @param name The name of a material
+     * @return The id of the material, or -1 if no room or furniture uses it
+     */
+    int materialId(String name) {
+        return this.materialIds.getOrDefault(name, -1);
+    }
+
+
+    /**
+     * Builds a map view of a material vector
+     *
+     * @param vector Amounts indexed by material id
+     * @return A HashMap with a keyset of the materials with nonzero amounts,
+     * and associated values of those amounts
+     */
+    HashMap<String, Integer> toMap(int[] vector) {
+        HashMap<String, Integer> map = new HashMap<>();
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                map.put(this.materials[id], vector[id]);
+            }
+        }
+        return map;
+    }
+
+
+    /**
+     * Gets the properties of a room type
+     *
+     * @param type The type of room to look up
+     * @return The room's properties, or null if the type isn't in the room file
+     */
+    RoomInfo room(RoomType type) {
+        return this.rooms.get(type);
+    }
+
+
+    /**
+     * Gets the materials needed to build a single piece of a furniture type
+     *
+     * @param type The type of furniture to look up
+     * @return The recipe shared by every piece of that type, or null if the
+     * type isn't in the furniture file
+     */
+    Recipe recipe(FurnitureType type) {
+        return this.furniture.get(type);
+    }
+
+
+    /**
+     * The materials needed to build a single piece of furniture. A recipe
+     * never changes once it is made, so one recipe is shared by every piece
+     * of furniture of its type, and by every type that needs the same
+     * materials
+     */
+    static final class Recipe {
+
+        //fields
+        private final int[] amounts;
+
+        Recipe(int[] amounts) {
+            this.amounts = amounts;
+        }
+
+        /**
+         * @return The amount of each material needed indexed by material id,
+         * which must not be modified
+         */
+        int[] vector() {
+            return this.amounts;
+        }
+
+        /**
+         * @param id The id of a material
+         * @return The amount of the material needed, or 0 if it isn't needed
+         */
+        int amount(int id) {
+            return id >= 0 && id < this.amounts.length ? this.amounts[id] : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Recipe && Arrays.equals(this.amounts, ((Recipe) o).amounts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.amounts);
+        }
+    }
+
+
+    /**
+     * The raw materials and furniture listed for a single room type
+     */
+    static final class RoomInfo {
+
+        //fields
+        private final int[] materials;
+        private final List<Map.Entry<FurnitureType, Integer>> furniture;
+
+        RoomInfo(int[] materials, List<Map.Entry<FurnitureType, Integer>> furniture) {
+            this.materials = materials;
+            this.furniture = Collections.unmodifiableList(furniture);
+        }
+
+        /**
+         * @return The raw materials needed to build the room itself, indexed
+         * by material id, which must not be modified
+         */
+        int[] materials() {
+            return this.materials;
+        }
+
+        /**
+         * @return The furniture types in the room and their amounts, in file order
+         */
+        List<Map.Entry<FurnitureType, Integer>> furniture() {
+            return this.furniture;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package materialCounter;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Program to determine what resources and materials a player needs in order
@@ -12,16 +21,547 @@ import java.util.Scanner;
  */
 public class MaterialCounter {
 
+    //fields
+    private static final String USAGE = "Usage: MaterialCounter [--format text|csv|json] [--inventory <file>] [--raw] [--spec <file> | --batch <file> | --playthrough [file] | key=value ...]\n"
+            + "       MaterialCounter --schedule <carry limit> [--spec <file> | key=value ...]\n"
+            + "       MaterialCounter --frontier [location]\n"
+            + "       MaterialCounter [--inventory <file>] --optimize <location> <gold> [plans] [name=weight ...]\n"
+            + "       MaterialCounter --serve [port]\n"
+            + "       MaterialCounter --load <port> <batch file> [requests] [clients]\n"
+            + "Any of these can start with --metrics";
+
+
     /**
-     * Main functionality of the program
+     * Main functionality of the program <br>
+     * With no arguments, asks the user how to build their house. Otherwise
+     * builds the house described by a spec file (--spec file) or by a spec
+     * given on the command line (key=value ...), see {@link HouseSpec}, or
+     * plans a whole batch of houses (--batch file), see {@link BatchPlanner},
+     * or plans a house at every location in one run (--playthrough [file]),
+     * see {@link Playthrough}, or works out the order to build a house in
+     * when only so many materials can be carried at once (--schedule limit
+     * spec), see {@link BuildScheduler},
+     * or finds the homestead configurations worth building (--frontier
+     * [location]), see {@link HomesteadEnumerator}, or finds the homestead
+     * plans worth the most that the player can afford (--optimize location
+     * gold [plans] [name=weight ...]), see {@link BudgetOptimizer}, or plans houses for
+     * clients over HTTP (--serve [port]), see {@link PlanServer}, or measures
+     * the latency of a running server (--load port batch [requests]
+     * [clients]), see {@link PlanLoad}. <br>
+     * Houses and batches are described as text unless another format is
+     * asked for with --format csv or --format json. When a house or a
+     * playthrough is planned with --inventory file, what is still missing
+     * from the inventory is described after it, see {@link Inventory}, and
+     * with --raw, what it all breaks down into once crafted materials are
+     * made from raw ones, see {@link RecipeBook}. <br>
+     * With --metrics first, how much work was done and how long it took is
+     * printed to stderr when the program exits, see {@link Metrics}
      */
     public static void main(String[] args) {
+        String format = "text";
+        Path inventory = null;
+        boolean raw = false;
+        if (args.length >= 1 && args[0].equals("--metrics")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> Metrics.print(System.err)));
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        while (args.length >= 1) {
+            if (args[0].equals("--raw")) {
+                raw = true;
+                args = Arrays.copyOfRange(args, 1, args.length);
+            } else if (args.length >= 2 && (args[0].equals("--format") || args[0].equals("--inventory"))) {
+                if (args[0].equals("--format")) {
+                    format = args[1];
+                } else {
+                    inventory = Paths.get(args[1]);
+                }
+                args = Arrays.copyOfRange(args, 2, args.length);
+            } else {
+                break;
+            }
+        }
+        if (!format.equals("text") && !format.equals("csv") && !format.equals("json")) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        if (args.length == 0) {
+            runInteractive(format, inventory, raw);
+            return;
+        }
+        if (args[0].equals("--batch")) {
+            runBatch(args, format);
+            return;
+        }
+        if (args[0].equals("--playthrough")) {
+            runPlaythrough(args, format, inventory, raw);
+            return;
+        }
+        if (args[0].equals("--frontier")) {
+            runFrontier(args);
+            return;
+        }
+        if (args[0].equals("--schedule")) {
+            runSchedule(args);
+            return;
+        }
+        if (args[0].equals("--optimize")) {
+            runOptimize(args, inventory);
+            return;
+        }
+        if (args[0].equals("--serve")) {
+            runServer(args);
+            return;
+        }
+        if (args[0].equals("--load")) {
+            runLoad(args);
+            return;
+        }
+        HouseSpec spec = readSpec(args);
+        printHouse(new House(spec), format, inventory, raw);
+    }
+
+
+    /**
+     * Creates a writer for plans in a given format
+     *
+     * @param format  text, csv or json
+     * @param out     Where the writer writes to
+     * @param catalog The catalog the plans written are built from
+     * @return The writer
+     */
+    static PlanWriter writerFor(String format, Appendable out, MaterialCatalog catalog) {
+        switch (format) {
+            case "csv":
+                return new CsvPlanWriter(out, catalog);
+            case "json":
+                return new JsonPlanWriter(out, catalog);
+            default:
+                return new ReportWriter(out, catalog);
+        }
+    }
+
+
+    /**
+     * Prints everything needed to build a house
+     *
+     * @param house     The house
+     * @param format    text, csv or json
+     * @param inventory The inventory file to check the house against, or null
+     * @param raw       Whether to break the house down into raw materials
+     */
+    private static void printHouse(House house, String format, Path inventory, boolean raw) {
+        try {
+            Metrics.Counted written = Metrics.counted(System.out);
+            PlanWriter out = writerFor(format, written, house.getCatalog());
+            if (format.equals("text")) {
+                System.out.println(house.toString());
+            } else {
+                Metrics.RenderEvent event = new Metrics.RenderEvent();
+                event.begin();
+                long start = System.nanoTime();
+                out.writeHouse(house);
+                Metrics.rendered(event, format, start, written.characters());
+            }
+            if (raw) {
+                printRawMaterials(house.getTotalMaterialVector(), house.getCatalog(), out);
+            }
+            printShortfall(inventory, house.getTotalMaterialVector(), house.getCatalog(), out);
+        } catch (IOException e) {
+            // PrintStream never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Prints what is still missing from an inventory file to build a plan,
+     * exiting if the file can't be read
+     *
+     * @param file     The inventory file, or null to print nothing
+     * @param required Everything needed to build the plan, indexed by material id
+     * @param catalog  The catalog the plan was built from
+     * @param out      Where to write the shortfall
+     * @throws IOException if the shortfall can't be written
+     */
+    private static void printShortfall(Path file, int[] required, MaterialCatalog catalog, PlanWriter out) throws IOException {
+        if (file == null) {
+            return;
+        }
+        Inventory inventory = new Inventory(required, catalog);
+        List<String> errors = new ArrayList<>();
+        try {
+            inventory.read(file, errors);
+        } catch (IOException e) {
+            System.err.println("Unable to read inventory file \'" + file + "\'!");
+            System.exit(1);
+        }
+        errors.forEach(error -> System.err.println(file + ", " + error));
+        out.writeShortfall(inventory);
+    }
+
+
+    /**
+     * Prints what a plan breaks down into once every crafted material is made
+     * from raw materials, exiting if the recipes can't be read
+     *
+     * @param totals  Everything needed to build the plan, indexed by material id
+     * @param catalog The catalog the plan was built from
+     * @param out     Where to write the raw materials
+     * @throws IOException if the raw materials can't be written
+     */
+    private static void printRawMaterials(int[] totals, MaterialCatalog catalog, PlanWriter out) throws IOException {
+        List<String> errors = new ArrayList<>();
+        RecipeBook recipes = RecipeBook.load(MaterialCatalog.getResourceDirectory(), catalog, errors);
+        if (recipes == null) {
+            errors.forEach(System.err::println);
+            System.exit(1);
+        }
+        out.writeRawMaterials(recipes.expand(totals));
+    }
+
+
+    /**
+     * Reads the house spec given in the command line arguments, exiting if
+     * it can't be read
+     *
+     * @param args The command line arguments
+     * @return The spec
+     */
+    private static HouseSpec readSpec(String[] args) {
+        try {
+            if (args[0].equals("--spec")) {
+                if (args.length != 2) {
+                    System.err.println(USAGE);
+                    System.exit(1);
+                }
+                return HouseSpec.read(Paths.get(args[1]));
+            }
+            return HouseSpec.parse(String.join(" ", args));
+        } catch (IOException e) {
+            System.err.println("Unable to read spec file \'" + args[1] + "\'!");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid house spec: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        return null;
+    }
+
+
+    /**
+     * Plans every house in a batch file, streaming the totals of each plan
+     * to standard output. Invalid specs are skipped and reported once the
+     * batch is done
+     *
+     * @param args   The command line arguments
+     * @param format text, csv or json
+     */
+    private static void runBatch(String[] args, String format) {
+        if (args.length != 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        List<String> errors = new ArrayList<>();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        // the whole batch is planned from one catalog
+        MaterialCatalog catalog = MaterialCatalog.get();
+        Metrics.Counted written = Metrics.counted(out);
+        BatchPlanner batch = new BatchPlanner(writerFor(format, written, catalog), written, catalog, errors);
+        long start = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[1]))) {
+            batch.plan(in);
+            batch.finish();
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Unable to plan batch file \'" + args[1] + "\'!");
+            System.exit(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        errors.forEach(error -> System.err.println(args[1] + ", " + error));
+        System.err.printf("Planned %d houses in %.1f ms%n", batch.size(), elapsed / 1e6);
+        if (!errors.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+
+    /**
+     * Plans a house at every location given in a file, one spec per line, or
+     * asks the user how to build a house at every location, and prints every
+     * house followed by the shopping list for all of them
+     *
+     * @param args      The command line arguments
+     * @param format    text, csv or json
+     * @param inventory The inventory file to check the playthrough against, or null
+     * @param raw       Whether to break the shopping list down into raw materials
+     */
+    private static void runPlaythrough(String[] args, String format, Path inventory, boolean raw) {
+        if (args.length > 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        // every house in the playthrough is planned from one catalog
+        MaterialCatalog catalog = MaterialCatalog.get();
+        List<String> errors = new ArrayList<>();
+        Playthrough playthrough = null;
+        if (args.length == 2) {
+            try {
+                playthrough = Playthrough.read(Paths.get(args[1]), catalog, errors);
+            } catch (IOException e) {
+                System.err.println("Unable to read playthrough file \'" + args[1] + "\'!");
+                System.exit(1);
+            }
+        } else {
+            playthrough = Playthrough.ask(catalog);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        try {
+            PlanWriter writer = writerFor(format, out, catalog);
+            playthrough.write(writer);
+            if (raw) {
+                printRawMaterials(playthrough.shoppingList(), catalog, writer);
+            }
+            printShortfall(inventory, playthrough.shoppingList(), catalog, writer);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Unable to write playthrough!");
+            System.exit(1);
+        }
+        errors.forEach(error -> System.err.println(args[1] + ", " + error));
+        if (!playthrough.missing().isEmpty()) {
+            System.err.println("Not planned: " + playthrough.missing());
+        }
+        if (!errors.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+
+    /**
+     * Prints the order to build a house in, trip by trip, when only so many
+     * materials can be carried at once
+     *
+     * @param args The command line arguments
+     */
+    private static void runSchedule(String[] args) {
+        int capacity = 0;
+        try {
+            capacity = args.length >= 3 ? Integer.parseInt(args[1]) : 0;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        if (capacity <= 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        House house = new House(readSpec(Arrays.copyOfRange(args, 2, args.length)));
+        BuildScheduler scheduler = new BuildScheduler(house, capacity);
+        long start = System.nanoTime();
+        List<BuildScheduler.Trip> trips = scheduler.schedule();
+        double millis = (System.nanoTime() - start) / 1e6;
+        scheduler.print(trips, System.out);
+        System.err.printf("Scheduled in %.2f ms%n", millis);
+    }
+
+
+    /**
+     * Walks through every configuration of one homestead, or of all of them,
+     * and prints the ones worth building
+     *
+     * @param args The command line arguments
+     */
+    private static void runFrontier(String[] args) {
+        List<House.Location> locations = new ArrayList<>();
+        if (args.length == 2 && House.getLocationByName(args[1]) != null && House.getLocationByName(args[1]).isHomestead()) {
+            locations.add(House.getLocationByName(args[1]));
+        } else if (args.length == 1) {
+            Arrays.stream(House.Location.values()).filter(House.Location::isHomestead).forEach(locations::add);
+        } else {
+            System.err.println(args.length == 2 ? "\'" + args[1] + "\' isn\'t a homestead" : USAGE);
+            System.exit(1);
+        }
+        MaterialCatalog catalog = MaterialCatalog.get();
+        for (House.Location location : locations) {
+            HomesteadEnumerator enumerator = new HomesteadEnumerator(location, catalog);
+            long start = System.nanoTime();
+            HomesteadEnumerator.Frontier frontier = enumerator.enumerate();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            enumerator.print(frontier, System.out);
+            System.err.printf("%s: %,d configurations in %.2f s (%,.0f per second), %d on the frontier%n",
+                    location.name(), enumerator.size(), seconds, enumerator.size() / seconds, frontier.size());
+        }
+    }
+
+
+    /**
+     * Finds the plans for a homestead worth the most that can be built with
+     * the given gold, and the materials in an inventory file if there is one
+     *
+     * @param args      The command line arguments
+     * @param inventory The inventory file with the materials the player has,
+     *                  or null if they can get as many as they need
+     */
+    private static void runOptimize(String[] args, Path inventory) {
+        House.Location location = args.length >= 3 ? House.getLocationByName(args[1]) : null;
+        if (location == null || !location.isHomestead()) {
+            System.err.println(args.length >= 3 ? "\'" + args[1] + "\' isn\'t a homestead" : USAGE);
+            System.exit(1);
+        }
+        long budget = 0;
+        int plans = BudgetOptimizer.DEFAULT_PLANS;
+        Map<Enum<?>, Double> weights = new HashMap<>();
+        try {
+            budget = Long.parseLong(args[2]);
+            int next = 3;
+            if (args.length > next && !args[next].contains("=")) {
+                plans = Integer.parseInt(args[next++]);
+            }
+            for (; next < args.length; next++) {
+                String[] pair = args[next].split("=", 2);
+                Enum<?> key = Names.room(pair[0]);
+                key = key != null ? key : Names.furniture(pair[0]);
+                key = key != null ? key : Names.expense(pair[0]);
+                if (pair.length != 2 || key == null) {
+                    System.err.println("Unknown room, furniture or expense \'" + pair[0] + "\'");
+                    System.exit(1);
+                }
+                weights.put(key, Double.parseDouble(pair[1]));
+            }
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        if (plans < 1) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        MaterialCatalog catalog = MaterialCatalog.get();
+        int[] onHand = null;
+        if (inventory != null) {
+            Inventory have = new Inventory(new int[catalog.materialCount()], catalog);
+            List<String> errors = new ArrayList<>();
+            try {
+                have.read(inventory, errors);
+            } catch (IOException e) {
+                System.err.println("Unable to read inventory file \'" + inventory + "\'!");
+                System.exit(1);
+            }
+            errors.forEach(error -> System.err.println(inventory + ", " + error));
+            onHand = new int[catalog.materialCount()];
+            for (int id = 0; id < onHand.length; id++) {
+                onHand[id] = have.have(id);
+            }
+        }
+        BudgetOptimizer optimizer = new BudgetOptimizer(location, catalog, weights);
+        long start = System.nanoTime();
+        List<BudgetOptimizer.Plan> best = optimizer.optimize(budget, onHand, plans);
+        double millis = (System.nanoTime() - start) / 1e6;
+        optimizer.print(best, System.out);
+        System.err.printf("%s: %,d branches in %.1f ms, %d plans%n", location.name(), optimizer.nodes(), millis, best.size());
+    }
+
+
+    /**
+     * Plans houses for clients over HTTP until the process is stopped,
+     * reloading the info files whenever they change
+     *
+     * @param args The command line arguments
+     */
+    private static void runServer(String[] args) {
+        int port = PlanServer.DEFAULT_PORT;
+        try {
+            if (args.length > 2) {
+                throw new NumberFormatException();
+            }
+            port = args.length == 2 ? Integer.parseInt(args[1]) : port;
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        try {
+            PlanServer server = new PlanServer(port, PlanCache.DEFAULT_CAPACITY);
+            CatalogWatcher watcher = new CatalogWatcher(MaterialCatalog.getResourceDirectory());
+            server.start();
+            watcher.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    // exiting anyway
+                }
+                System.err.println("Planned " + server.latencies());
+            }));
+            System.err.println("Planning houses at http://127.0.0.1:" + server.port() + "/plan");
+        } catch (IOException e) {
+            System.err.println("Unable to serve on port " + port + "!");
+            System.exit(1);
+        }
+    }
+
+
+    /**
+     * Posts every spec in a batch file to a running server, over and over,
+     * and prints the latencies seen
+     *
+     * @param args The command line arguments
+     */
+    private static void runLoad(String[] args) {
+        int port = 0;
+        int requests = 10000;
+        int clients = 16;
+        List<String> specs = new ArrayList<>();
+        try {
+            if (args.length < 3 || args.length > 5) {
+                throw new NumberFormatException();
+            }
+            port = Integer.parseInt(args[1]);
+            requests = args.length > 3 ? Integer.parseInt(args[3]) : requests;
+            clients = args.length > 4 ? Integer.parseInt(args[4]) : clients;
+            for (String line : Files.readAllLines(Paths.get(args[2]))) {
+                int comment = line.indexOf(HouseSpec.COMMENT);
+                if (!(comment >= 0 ? line.substring(0, comment) : line).isBlank()) {
+                    specs.add(line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Unable to read batch file \'" + args[2] + "\'!");
+            System.exit(1);
+        }
+        if (specs.isEmpty()) {
+            System.err.println("No specs in batch file \'" + args[2] + "\'!");
+            System.exit(1);
+        }
+        try {
+            AtomicLong failures = new AtomicLong();
+            long start = System.nanoTime();
+            LatencyHistogram latencies = new PlanLoad(port, specs).run(requests, clients, failures);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d clients: %s, %,.0f per second, %d failed%n",
+                    clients, latencies, latencies.count() / seconds, failures.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Asks the user where and how to build their house
+     *
+     * @param format    text, csv or json
+     * @param inventory The inventory file to check the house against, or null
+     * @param raw       Whether to break the house down into raw materials
+     */
+    private static void runInteractive(String format, Path inventory, boolean raw) {
         final Scanner in = new Scanner(System.in);
         House.Location[] locations = House.Location.values();
         int input;
         System.out.println("Where would you like the house to be? ");
         for (int i = 0; i < locations.length; i++) {
-            System.out.println((i + 1) + ": " + locations[i].name().replaceAll("_", " "));
+            System.out.println((i + 1) + ": " + Names.displayName(locations[i]));
         }
         // until we get a valid input
         do {
@@ -33,22 +573,23 @@ public class MaterialCounter {
             in.nextLine();
             in.reset();
         } while (input < 1 || input > locations.length);
-        House house = new House(House.getLocationByName(House.formatToEnum(locations[--input].name())));
-        System.out.println(house.toString());
+        House house = new House(locations[--input]);
+        printHouse(house, format, inventory, raw);
         in.close();
     }
 
 
     /**
-     * Helper method that tallies within a HashMap
+     * Helper method that tallies one material vector into another
      *
-     * @param item    The key
-     * @param amt     The value to add to the key
-     * @param tracker The HashMap used to tally the values for each key
+     * @param amounts The amounts to add, indexed by material id
+     * @param times   The number of times to add them
+     * @param tracker The vector used to tally the amounts for each material
      */
-    static void tally(String item, Integer amt, HashMap<String, Integer> tracker) {
-        if (!tracker.containsKey(item))
-            tracker.put(item, 0);
-        tracker.put(item, tracker.get(item) + amt);
+    static void tally(int[] amounts, int times, int[] tracker) {
+        Metrics.count(Metrics.Counter.TALLIES);
+        for (int id = 0; id < amounts.length; id++) {
+            tracker[id] += amounts[id] * times;
+        }
     }
 }
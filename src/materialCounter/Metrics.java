@@ -0,0 +1,307 @@
+package materialCounter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and times the work done while planning houses, so it is clear which
+ * phase the time goes to. <br>
+ * The counters and timers are always on and cheap enough to stay on; they
+ * can be printed when the program exits with --metrics and are returned by
+ * GET /stats on the server. The same phases are also recorded as Java Flight
+ * Recorder events, under the MaterialCounter category, whenever a recording
+ * is running:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=plans.jfr -cp ... materialCounter.MaterialCounter --batch plans.txt
+ * jfr summary plans.jfr
+ * jfr print --events materialCounter.HouseBuild plans.jfr
+ * </pre>
+ *
+ * @author Adam Cooper
+ */
+final class Metrics {
+
+    /**
+     * Things that are counted
+     */
+    enum Counter {
+        INFO_FILES_OPENED,
+        ROOMS_BUILT,
+        FURNITURE_BUILT,
+        HOUSES_BUILT,
+        TALLIES,
+        CHARACTERS_RENDERED
+    }
+
+
+    /**
+     * Phases that are timed
+     */
+    enum Timer {
+        CATALOG_PARSE,
+        HOUSE_BUILD,
+        RENDER
+    }
+
+
+    //fields
+    private static final LongAdder[] COUNTS = adders(Counter.values().length);
+    private static final LongAdder[] CALLS = adders(Timer.values().length);
+    private static final LongAdder[] NANOS = adders(Timer.values().length);
+
+
+    private Metrics() {
+    }
+
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+
+    /**
+     * Adds one to a counter
+     *
+     * @param counter The counter
+     */
+    static void count(Counter counter) {
+        COUNTS[counter.ordinal()].increment();
+    }
+
+
+    /**
+     * Adds to a counter
+     *
+     * @param counter The counter
+     * @param amount  The amount to add
+     */
+    static void add(Counter counter, long amount) {
+        COUNTS[counter.ordinal()].add(amount);
+    }
+
+
+    /**
+     * Records one run of a phase
+     *
+     * @param timer The phase
+     * @param start When the phase started, from {@link System#nanoTime()}
+     */
+    static void time(Timer timer, long start) {
+        CALLS[timer.ordinal()].increment();
+        NANOS[timer.ordinal()].add(System.nanoTime() - start);
+    }
+
+
+    /**
+     * Records one house being written out, adding its characters to
+     * {@link Counter#CHARACTERS_RENDERED}, and commits its event if a flight
+     * recording is running
+     *
+     * @param event      The event, begun when the house started being written
+     * @param format     The format the house was written in
+     * @param start      When the house started being written, from {@link System#nanoTime()}
+     * @param characters The number of characters written
+     */
+    static void rendered(RenderEvent event, String format, long start, long characters) {
+        time(Timer.RENDER, start);
+        add(Counter.CHARACTERS_RENDERED, characters);
+        if (event.shouldCommit()) {
+            event.format = format;
+            event.characters = characters;
+            event.commit();
+        }
+    }
+
+
+    /**
+     * Wraps somewhere plans are written to, so the characters written to it
+     * are counted
+     *
+     * @param out Where the plans are written
+     * @return The same destination, counted
+     */
+    static Counted counted(Appendable out) {
+        return new Counted(out);
+    }
+
+
+    /**
+     * @param counter A counter
+     * @return The counter's value
+     */
+    static long get(Counter counter) {
+        return COUNTS[counter.ordinal()].sum();
+    }
+
+
+    /**
+     * @param timer A phase
+     * @return The number of times the phase has run
+     */
+    static long calls(Timer timer) {
+        return CALLS[timer.ordinal()].sum();
+    }
+
+
+    /**
+     * @param timer A phase
+     * @return The total time spent in the phase, in nanoseconds
+     */
+    static long nanos(Timer timer) {
+        return NANOS[timer.ordinal()].sum();
+    }
+
+
+    /**
+     * @return Every counter, and the calls and total microseconds of every
+     * phase, as a JSON object
+     */
+    static String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Counter counter : Counter.values()) {
+            sb.append('"').append(counter.name().toLowerCase()).append("\":").append(get(counter)).append(',');
+        }
+        for (Timer timer : Timer.values()) {
+            String name = timer.name().toLowerCase();
+            sb.append('"').append(name).append("_calls\":").append(calls(timer)).append(",\"")
+                    .append(name).append("_micros\":").append(nanos(timer) / 1000).append(',');
+        }
+        sb.setCharAt(sb.length() - 1, '}');
+        return new String(sb);
+    }
+
+
+    /**
+     * Prints every counter and phase
+     *
+     * @param out The stream to print to
+     */
+    static void print(PrintStream out) {
+        for (Counter counter : Counter.values()) {
+            out.printf("%-20s %,14d%n", counter.name().toLowerCase(), get(counter));
+        }
+        for (Timer timer : Timer.values()) {
+            out.printf("%-20s %,14d calls %,12.1f ms%n", timer.name().toLowerCase(), calls(timer), nanos(timer) / 1e6);
+        }
+    }
+
+
+    /**
+     * Somewhere plans are written to that counts every character written
+     * to it, so the characters of one house can be passed to
+     * {@link #rendered(RenderEvent, String, long, long)} without counting
+     * what other threads write elsewhere at the same time. A destination is
+     * only written to by one thread at a time
+     */
+    static final class Counted implements Appendable {
+
+        //fields
+        private final Appendable out;
+        private long characters;
+
+
+        private Counted(Appendable out) {
+            this.out = out;
+        }
+
+
+        /**
+         * @return The number of characters written here so far
+         */
+        long characters() {
+            return this.characters;
+        }
+
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            CharSequence chars = csq == null ? "null" : csq;
+            this.out.append(chars);
+            this.characters += chars.length();
+            return this;
+        }
+
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            this.out.append(csq == null ? "null" : csq, start, end);
+            this.characters += end - start;
+            return this;
+        }
+
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            this.out.append(c);
+            this.characters++;
+            return this;
+        }
+    }
+
+
+    /**
+     * Reading the room and furniture catalog, from the info files or from
+     * the compiled catalog
+     */
+    @Name("materialCounter.CatalogParse")
+    @Label("Catalog Parse")
+    @Category("MaterialCounter")
+    static final class CatalogParseEvent extends Event {
+
+        @Label("Directory")
+        String directory;
+
+        @Label("Compiled")
+        @Description("Read from the compiled catalog instead of the info files")
+        boolean compiled;
+
+        @Label("Materials")
+        int materials;
+
+        @Label("Errors")
+        int errors;
+    }
+
+
+    /**
+     * Building every room and piece of furniture of one house
+     */
+    @Name("materialCounter.HouseBuild")
+    @Label("House Build")
+    @Category("MaterialCounter")
+    static final class HouseBuildEvent extends Event {
+
+        @Label("Location")
+        String location;
+
+        @Label("Rooms")
+        int rooms;
+    }
+
+
+    /**
+     * Writing out one house
+     */
+    @Name("materialCounter.Render")
+    @Label("Render")
+    @Category("MaterialCounter")
+    static final class RenderEvent extends Event {
+
+        @Label("Format")
+        String format;
+
+        @Label("Characters")
+        long characters;
+    }
+}
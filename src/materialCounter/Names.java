@@ -0,0 +1,215 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+import materialCounter.Room.FurnitureType;
+import materialCounter.Room.RoomType;
+
+import java.util.HashMap;
+
+/**
+ * Turns names typed by the user into rooms, furniture, locations and
+ * expenses, and turns those back into the names shown to the user. <br>
+ * Every table is built once, when the class is loaded. A name is looked up
+ * by its key, which ignores case, treats spaces, underscores and dashes
+ * alike and drops possessives, so Enchanter_Tower, "enchanter tower" and
+ * "Enchanter's Tower" are all found with a single hash lookup. The name
+ * shown to the user for a constant is found the same way, by its ordinal
+ *
+ * @author Adam Cooper
+ */
+final class Names {
+
+    //fields
+    private static final Table<RoomType> ROOMS = new Table<>(RoomType.values());
+    private static final Table<FurnitureType> FURNITURE = new Table<>(FurnitureType.values());
+    private static final Table<Location> LOCATIONS = new Table<>(Location.values());
+    private static final Table<Expense> EXPENSES = new Table<>(Expense.values());
+    // the prefixes dropped from furniture names where the kind of furniture goes without saying
+    private static final String[] KINDS = {"Trophy ", "Shrine of "};
+    private static final String[] SHORT_FURNITURE = shortNames(FURNITURE.displayNames);
+
+
+    private Names() {
+    }
+
+
+    /**
+     * @param name The name of a room, in any spelling
+     * @return The room type with that name, or null if there isn't one
+     */
+    static RoomType room(String name) {
+        return ROOMS.get(name);
+    }
+
+
+    /**
+     * @param name The name of a piece of furniture, in any spelling
+     * @return The furniture type with that name, or null if there isn't one
+     */
+    static FurnitureType furniture(String name) {
+        return FURNITURE.get(name);
+    }
+
+
+    /**
+     * @param name The name of a location, in any spelling
+     * @return The location with that name, or null if there isn't one
+     */
+    static Location location(String name) {
+        return LOCATIONS.get(name);
+    }
+
+
+    /**
+     * @param name The name of an expense, in any spelling
+     * @return The expense with that name, or null if there isn't one
+     */
+    static Expense expense(String name) {
+        return EXPENSES.get(name);
+    }
+
+
+    /**
+     * @param type A room type
+     * @return The name of the room as it is shown to the user
+     */
+    static String displayName(RoomType type) {
+        return ROOMS.displayNames[type.ordinal()];
+    }
+
+
+    /**
+     * @param type A furniture type
+     * @return The name of the furniture as it is shown to the user
+     */
+    static String displayName(FurnitureType type) {
+        return FURNITURE.displayNames[type.ordinal()];
+    }
+
+
+    /**
+     * @param type A furniture type
+     * @return The name of the furniture as it is shown to the user without
+     * its kind, so Trophy_Sabre_Cat is Sabre Cat and Shrine_of_Talos is Talos
+     */
+    static String shortName(FurnitureType type) {
+        return SHORT_FURNITURE[type.ordinal()];
+    }
+
+
+    /**
+     * @param location A location
+     * @return The name of the location as it is shown to the user
+     */
+    static String displayName(Location location) {
+        return LOCATIONS.displayNames[location.ordinal()];
+    }
+
+
+    /**
+     * Turns an enum or material name into the name shown to the user
+     *
+     * @param name The name to format
+     * @return The name with underscores and numbering removed
+     */
+    static String format(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' && i + 1 < name.length() && Character.isDigit(name.charAt(i + 1))) {
+                i++;
+            } else {
+                sb.append(c == '_' ? ' ' : c);
+            }
+        }
+        return new String(sb);
+    }
+
+
+    /**
+     * @param displayNames The names of some furniture as they are shown to the user
+     * @return The names without the kind of furniture they start with
+     */
+    private static String[] shortNames(String[] displayNames) {
+        String[] names = displayNames.clone();
+        for (int i = 0; i < names.length; i++) {
+            for (String kind : KINDS) {
+                if (names[i].startsWith(kind)) {
+                    names[i] = names[i].substring(kind.length());
+                }
+            }
+        }
+        return names;
+    }
+
+
+    /**
+     * Works out the key a name is looked up by. Case is ignored, any run of
+     * spaces, underscores and dashes is read as a single underscore, and
+     * apostrophes are dropped along with the s of a possessive
+     *
+     * @param name The name as it was given
+     * @return The key for the name
+     */
+    static String key(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean gap = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == ' ' || c == '_' || c == '-' || c == '\t') {
+                gap = sb.length() > 0;
+            } else if (c == '\'' || c == '\u2019') {
+                // so Enchanter's Tower finds Enchanter_Tower
+                if (i + 1 < name.length() && (name.charAt(i + 1) == 's' || name.charAt(i + 1) == 'S')
+                        && (i + 2 == name.length() || !Character.isLetterOrDigit(name.charAt(i + 2)))) {
+                    i++;
+                }
+            } else {
+                if (gap) {
+                    sb.append('_');
+                    gap = false;
+                }
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return new String(sb);
+    }
+
+
+    /**
+     * The names of every constant of one enum
+     */
+    private static final class Table<E extends Enum<E>> {
+
+        //fields
+        private final HashMap<String, E> byKey;
+        private final String[] displayNames;
+
+
+        /**
+         * Constructor <br>
+         * Every constant can be found by its own name first, and then by the
+         * name shown to the user as long as no other constant has taken it,
+         * so End Table finds End_Table_1
+         *
+         * @param values Every constant of the enum
+         */
+        Table(E[] values) {
+            this.byKey = new HashMap<>(values.length * 4);
+            this.displayNames = new String[values.length];
+            for (E value : values) {
+                this.byKey.put(key(value.name()), value);
+                this.displayNames[value.ordinal()] = format(value.name());
+            }
+            for (E value : values) {
+                this.byKey.putIfAbsent(key(this.displayNames[value.ordinal()]), value);
+            }
+        }
+
+
+        E get(String name) {
+            return name == null ? null : this.byKey.get(key(name));
+        }
+    }
+}
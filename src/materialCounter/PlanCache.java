@@ -0,0 +1,171 @@
+package materialCounter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Remembers the plans made most recently, so a plan that is asked for again
+ * is answered without building any rooms or furniture. <br>
+ * Plans are looked up by their spec written out in full, see
+ * {@link HouseSpec#toString()}, which is the same for every spec that makes
+ * the same choices no matter how it was written. Once the cache is full the
+ * plan used least recently is dropped. A plan made from a catalog that has
+ * since been reloaded is made again
+ *
+ * @author Adam Cooper
+ */
+final class PlanCache {
+
+    //fields
+    static final int DEFAULT_CAPACITY = 4096;
+    private final int capacity;
+    private final Function<House, String> render;
+    private final LinkedHashMap<String, Plan> plans;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+
+    /**
+     * Constructor
+     *
+     * @param capacity The most plans to remember
+     * @param render   Writes out a house the way it is returned from the cache
+     */
+    PlanCache(int capacity, Function<House, String> render) {
+        this.capacity = capacity;
+        this.render = render;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        // in access order, so the eldest entry is the one used least recently
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+                if (this.size() > PlanCache.this.capacity) {
+                    PlanCache.this.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+
+    /**
+     * Gets the plan for a spec, making it if it isn't remembered. The house
+     * is built outside of any lock, so plans that aren't remembered are made
+     * in parallel
+     *
+     * @param spec    The choices the house is built with
+     * @param catalog The catalog to build the house from
+     * @return The plan
+     */
+    Plan get(HouseSpec spec, MaterialCatalog catalog) {
+        String key = spec.toString();
+        Plan plan;
+        synchronized (this.plans) {
+            plan = this.plans.get(key);
+        }
+        if (plan != null && plan.catalog == catalog) {
+            this.hits.increment();
+            return plan;
+        }
+        this.misses.increment();
+        House house = new House(spec, catalog);
+        plan = new Plan(catalog, house.getTotalMaterialVector(), this.render.apply(house));
+        synchronized (this.plans) {
+            this.plans.put(key, plan);
+        }
+        return plan;
+    }
+
+
+    /**
+     * @return The number of plans remembered
+     */
+    int size() {
+        synchronized (this.plans) {
+            return this.plans.size();
+        }
+    }
+
+
+    /**
+     * @return The number of plans answered from the cache
+     */
+    long hits() {
+        return this.hits.sum();
+    }
+
+
+    /**
+     * @return The number of plans that had to be made
+     */
+    long misses() {
+        return this.misses.sum();
+    }
+
+
+    /**
+     * @return The number of plans dropped to make room for others
+     */
+    long evictions() {
+        return this.evictions.sum();
+    }
+
+
+    /**
+     * @return The size, capacity, hits, misses and evictions as a JSON object
+     */
+    String toJson() {
+        return "{\"size\":" + this.size() + ",\"capacity\":" + this.capacity + ",\"hits\":" + this.hits()
+                + ",\"misses\":" + this.misses() + ",\"evictions\":" + this.evictions() + "}";
+    }
+
+
+    /**
+     * A plan that has been made, which never changes
+     */
+    static final class Plan {
+
+        //fields
+        private final MaterialCatalog catalog;
+        private final int[] totals;
+        private final String rendered;
+
+
+        private Plan(MaterialCatalog catalog, int[] totals, String rendered) {
+            this.catalog = catalog;
+            this.totals = totals;
+            this.rendered = rendered;
+        }
+
+
+        /**
+         * @return The catalog the plan was made from
+         */
+        MaterialCatalog catalog() {
+            return this.catalog;
+        }
+
+
+        /**
+         * @return Everything needed to build the house, indexed by material
+         * id, which must not be modified
+         */
+        int[] totals() {
+            return this.totals;
+        }
+
+
+        /**
+         * @return The house as it was written out
+         */
+        String rendered() {
+            return this.rendered;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package materialCounter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Puts a {@link PlanServer} under load from the same machine, to measure the
+ * latency clients see. <br>
+ * A number of clients post specs one after another, taking turns through a
+ * list of specs, until the requested number of plans have been made. Every
+ * latency is measured from sending the request to reading the whole answer
+ *
+ * @author Adam Cooper
+ */
+final class PlanLoad {
+
+    //fields
+    private final URI uri;
+    private final List<String> specs;
+    private final HttpClient client;
+
+
+    /**
+     * Constructor
+     *
+     * @param port  The port the server is listening on
+     * @param specs The specs to post, which should not be empty
+     */
+    PlanLoad(int port, List<String> specs) {
+        this.uri = URI.create("http://127.0.0.1:" + port + "/plan");
+        this.specs = specs;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+
+    /**
+     * Posts specs until the given number of plans have been made
+     *
+     * @param requests The number of plans to make
+     * @param clients  The number of clients posting at once
+     * @param failures Counts every request that wasn't answered with a plan
+     * @return The latencies the clients saw
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    LatencyHistogram run(int requests, int clients, AtomicLong failures) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = PlanServer.newExecutor();
+        for (int c = 0; c < clients; c++) {
+            executor.execute(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    HttpRequest request = HttpRequest.newBuilder(this.uri)
+                            .POST(HttpRequest.BodyPublishers.ofString(this.specs.get(i % this.specs.size())))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies.record(System.nanoTime() - start);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.DAYS);
+        return latencies;
+    }
+}
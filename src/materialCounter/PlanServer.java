@@ -0,0 +1,225 @@
+package materialCounter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Plans houses over HTTP, so many clients can share one warm JVM instead of
+ * each paying to start one and parse the info files. <br>
+ * The server only listens on the loopback address and answers:
+ * <ul>
+ * <li>POST /plan with a spec as the body, see {@link HouseSpec}: the house
+ * as JSON, see {@link JsonPlanWriter}, or {"error":"..."} with status 400
+ * if the spec is invalid</li>
+ * <li>POST /totals with a spec as the body: only everything needed to build
+ * the house, as the shopping list for one plan, or an error the same way</li>
+ * <li>GET /stats: the number of plans made and their p50, p99 and max
+ * latencies in microseconds, and how often plans were answered from the
+ * cache, and the counters and timers in {@link Metrics}</li>
+ * </ul>
+ * Plans that were asked for recently are answered from a {@link PlanCache}.
+ * Every request runs on its own virtual thread when the JVM has them, and on
+ * a cached thread pool otherwise. The info files are watched while the
+ * server is up, see {@link CatalogWatcher}
+ *
+ * @author Adam Cooper
+ */
+final class PlanServer {
+
+    //fields
+    static final int DEFAULT_PORT = 8080;
+    private static final int MAX_SPEC_BYTES = 1 << 16;
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LatencyHistogram latencies;
+    private final PlanCache cache;
+
+
+    /**
+     * Constructor <br>
+     * Binds the server, without starting it
+     *
+     * @param port      The port to listen on, or 0 for any free port
+     * @param cacheSize The most plans to remember, see {@link PlanCache}
+     * @throws IOException if the port can't be bound
+     */
+    PlanServer(int port, int cacheSize) throws IOException {
+        // the headers and body of an answer are written separately, which
+        // otherwise waits on a delayed ACK for every request
+        if (System.getProperty(NODELAY) == null) {
+            System.setProperty(NODELAY, "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newExecutor();
+        this.latencies = new LatencyHistogram();
+        this.cache = new PlanCache(cacheSize, PlanServer::json);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/plan", exchange -> this.plan(exchange, PlanCache.Plan::rendered));
+        this.server.createContext("/totals", exchange -> this.plan(exchange, PlanServer::totals));
+        this.server.createContext("/stats", this::stats);
+    }
+
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread. The
+     * method is looked up by name so the server still builds and runs on
+     * JVMs without virtual threads, where a cached thread pool is used
+     *
+     * @return The executor requests are handled on
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "plan-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+    /**
+     * Starts answering requests
+     */
+    void start() {
+        this.server.start();
+    }
+
+
+    /**
+     * Stops answering requests, waiting up to a second for the ones being
+     * answered
+     */
+    void stop() {
+        this.server.stop(1);
+        this.executor.shutdown();
+    }
+
+
+    /**
+     * @return The port the server is listening on
+     */
+    int port() {
+        return this.server.getAddress().getPort();
+    }
+
+
+    /**
+     * @return The latencies of every plan made so far
+     */
+    LatencyHistogram latencies() {
+        return this.latencies;
+    }
+
+
+    /**
+     * Answers POST /plan or POST /totals
+     *
+     * @param answer Writes out the plan for the spec in the request
+     */
+    private void plan(HttpExchange exchange, Function<PlanCache.Plan, String> answer) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "{\"error\":\"use POST\"}\n");
+                return;
+            }
+            String text = readBody(exchange.getRequestBody());
+            if (text == null) {
+                respond(exchange, 413, "{\"error\":\"spec is too long\"}\n");
+                return;
+            }
+            HouseSpec spec;
+            try {
+                spec = HouseSpec.parse(text);
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, "{\"error\":" + JsonPlanWriter.quote(String.valueOf(e.getMessage())) + "}\n");
+                return;
+            }
+            respond(exchange, 200, answer.apply(this.cache.get(spec, MaterialCatalog.get())));
+        } finally {
+            this.latencies.record(System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Answers GET /stats
+     */
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            respond(exchange, 200, "{\"latency\":" + this.latencies.toJson() + ",\"cache\":" + this.cache.toJson()
+                    + ",\"metrics\":" + Metrics.toJson() + "}\n");
+        }
+    }
+
+
+    /**
+     * @return What a plan needs as the JSON object it is answered with,
+     * without building or writing out the house again
+     */
+    private static String totals(PlanCache.Plan plan) {
+        StringBuilder sb = new StringBuilder(1024);
+        try {
+            new JsonPlanWriter(sb, plan.catalog()).writeShoppingList(1, plan.totals());
+        } catch (IOException e) {
+            // appending to a StringBuilder never fails
+            throw new UncheckedIOException(e);
+        }
+        return new String(sb);
+    }
+
+
+    /**
+     * @return A house as the JSON object it is answered with
+     */
+    private static String json(House house) {
+        Metrics.RenderEvent event = new Metrics.RenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            new JsonPlanWriter(sb, house.getCatalog()).writeHouse(house);
+        } catch (IOException e) {
+            // appending to a StringBuilder never fails
+            throw new UncheckedIOException(e);
+        }
+        Metrics.rendered(event, "json", start, sb.length());
+        return new String(sb);
+    }
+
+
+    /**
+     * @return The body of a request, or null if it is longer than any spec
+     * should be
+     */
+    private static String readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_SPEC_BYTES + 1);
+        return body.length > MAX_SPEC_BYTES ? null : new String(body, StandardCharsets.UTF_8);
+    }
+
+
+    private static void respond(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
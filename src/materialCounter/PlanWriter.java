@@ -0,0 +1,60 @@
+package materialCounter;
+
+import java.io.IOException;
+
+/**
+ * Something that writes out what is needed to build houses, either for a
+ * person to read or for another program
+ *
+ * @author Adam Cooper
+ */
+interface PlanWriter {
+
+    /**
+     * Writes everything needed to build a single house
+     *
+     * @param house The house to describe
+     * @throws IOException if the house can't be written
+     */
+    void writeHouse(House house) throws IOException;
+
+
+    /**
+     * Writes one plan in a batch
+     *
+     * @param number The number of the plan in the batch, counting from 1
+     * @param line   The line the plan was read from
+     * @param house  The house built for the plan
+     * @param totals Everything needed to build the house, indexed by material id
+     * @throws IOException if the plan can't be written
+     */
+    void writePlan(int number, int line, House house, int[] totals) throws IOException;
+
+
+    /**
+     * Writes the shopping list for a whole batch
+     *
+     * @param plans  The number of plans in the batch
+     * @param totals Everything needed to build every plan, indexed by material id
+     * @throws IOException if the shopping list can't be written
+     */
+    void writeShoppingList(int plans, int[] totals) throws IOException;
+
+
+    /**
+     * Writes what is still missing from the player's inventory
+     *
+     * @param inventory The inventory, checked against a plan
+     * @throws IOException if the shortfall can't be written
+     */
+    void writeShortfall(Inventory inventory) throws IOException;
+
+
+    /**
+     * Writes a plan broken down into raw materials
+     *
+     * @param bill The raw materials, and what is crafted from them
+     * @throws IOException if the bill can't be written
+     */
+    void writeRawMaterials(RecipeBook.Bill bill) throws IOException;
+}
@@ -0,0 +1,149 @@
+package materialCounter;
+
+import materialCounter.House.Location;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Plans a house at several locations, or all of them, as one run through
+ * the game. <br>
+ * Every house is built from the same catalog, and each location can only
+ * be planned once. The houses are written out one after another, in the
+ * order of the locations, followed by a shopping list for all of them,
+ * which includes the gold for every deed, plot and expense
+ *
+ * @author Adam Cooper
+ */
+final class Playthrough {
+
+    //fields
+    private final MaterialCatalog catalog;
+    private final EnumMap<Location, House> houses;
+    private final int[] shoppingList;
+
+
+    /**
+     * Constructor
+     *
+     * @param catalog The catalog to build every house from
+     */
+    Playthrough(MaterialCatalog catalog) {
+        this.catalog = catalog;
+        this.houses = new EnumMap<>(Location.class);
+        this.shoppingList = new int[catalog.materialCount()];
+    }
+
+
+    /**
+     * Reads a playthrough from a file with one spec per line. Blank lines
+     * and lines that are only a comment are skipped
+     *
+     * @param file    The file to read
+     * @param catalog The catalog to build every house from
+     * @param errors  A list to add a message to for every invalid spec
+     * @return The playthrough, without the houses for invalid specs
+     * @throws IOException if the file can't be read
+     */
+    static Playthrough read(Path file, MaterialCatalog catalog, List<String> errors) throws IOException {
+        Playthrough playthrough = new Playthrough(catalog);
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            int comment = line.indexOf(HouseSpec.COMMENT);
+            if ((comment >= 0 ? line.substring(0, comment) : line).isBlank()) {
+                continue;
+            }
+            try {
+                playthrough.add(HouseSpec.parse(line));
+            } catch (IllegalArgumentException e) {
+                errors.add("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return playthrough;
+    }
+
+
+    /**
+     * Asks the user how to build a house at every location
+     *
+     * @param catalog The catalog to build every house from
+     * @return The playthrough
+     */
+    static Playthrough ask(MaterialCatalog catalog) {
+        Playthrough playthrough = new Playthrough(catalog);
+        for (Location location : Location.values()) {
+            if (location.isHomestead()) {
+                System.out.println(Names.displayName(location) + ":");
+            }
+            playthrough.add(House.askForSpec(location));
+        }
+        return playthrough;
+    }
+
+
+    /**
+     * Builds the house for a spec and adds it to the playthrough
+     *
+     * @param spec The choices to build the house with
+     * @throws IllegalArgumentException if a house at the same location has
+     *                                  already been planned
+     */
+    void add(HouseSpec spec) {
+        if (this.houses.containsKey(spec.location())) {
+            throw new IllegalArgumentException(spec.location().name() + " is already planned");
+        }
+        House house = new House(spec, this.catalog);
+        this.houses.put(spec.location(), house);
+        MaterialCounter.tally(house.getTotalMaterialVector(), 1, this.shoppingList);
+    }
+
+
+    /**
+     * @return The number of houses planned
+     */
+    int size() {
+        return this.houses.size();
+    }
+
+
+    /**
+     * @return Everything needed to build every house, indexed by material
+     * id, which must not be modified
+     */
+    int[] shoppingList() {
+        return this.shoppingList;
+    }
+
+
+    /**
+     * Writes every house, followed by the shopping list for all of them
+     *
+     * @param out Where to write the houses
+     * @throws IOException if the houses can't be written
+     */
+    void write(PlanWriter out) throws IOException {
+        for (House house : this.houses.values()) {
+            out.writeHouse(house);
+        }
+        out.writeShoppingList(this.houses.size(), this.shoppingList);
+    }
+
+
+    /**
+     * @return The locations that haven't been planned yet
+     */
+    List<Location> missing() {
+        List<Location> missing = new ArrayList<>();
+        for (Location location : Location.values()) {
+            if (!this.houses.containsKey(location)) {
+                missing.add(location);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,405 @@
+package materialCounter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Knows what the materials in the catalog that are crafted, such as nails or
+ * glass, are made from, so a plan can be broken down to the raw materials
+ * that are mined, chopped or hunted. <br>
+ * The recipes are read from recipes.info, where each recipe gives the
+ * material made, the number made at once, and what that batch uses:
+ * <pre>
+ * ~Nails 10
+ *     Iron_Ingot 1
+ * </pre>
+ * The inputs of a recipe can be crafted too. The recipes are checked for
+ * cycles and put in order once, when they are read, so that every material
+ * comes before the materials it is made from. Breaking down a plan is then a
+ * single pass over that order, which adds up everything that needs a
+ * material before crafting it, so no more partial batches are crafted than
+ * the plan as a whole needs
+ *
+ * @author Adam Cooper
+ */
+final class RecipeBook {
+
+    //fields
+    static final String RECIPE_FILE = "recipes.info";
+    static final String RECIPE_NOTATOR = "~";
+    private final MaterialCatalog catalog;
+    private final String[] materials;
+    private final String[] displayNames;
+    private final int[] order;
+    private final int[] yields;
+    private final int[][] inputs;
+    private final int[][] amounts;
+
+
+    /**
+     * Constructor
+     *
+     * @param catalog   The catalog the plans broken down are built from
+     * @param materials The name of every material, starting with the ones in
+     *                  the catalog with the same ids
+     * @param order     Every crafted material, each one before what it is made from
+     * @param yields    The number made by each recipe, indexed by material id
+     * @param inputs    The ids of the materials each recipe uses, indexed by material id
+     * @param amounts   The amounts of those materials, indexed by material id
+     */
+    private RecipeBook(MaterialCatalog catalog, String[] materials, int[] order, int[] yields, int[][] inputs, int[][] amounts) {
+        this.catalog = catalog;
+        this.materials = materials;
+        this.displayNames = new String[materials.length];
+        for (int id = 0; id < materials.length; id++) {
+            this.displayNames[id] = id < catalog.materialCount() ? catalog.displayName(id) : Names.format(materials[id]);
+        }
+        this.order = order;
+        this.yields = yields;
+        this.inputs = inputs;
+        this.amounts = amounts;
+    }
+
+
+    /**
+     * Reads the recipes in the given directory
+     *
+     * @param directory The directory containing the info files
+     * @param catalog   The catalog the plans broken down are built from
+     * @param errors    A list to add a message to for every problem found
+     * @return The recipes, or null if any errors were found
+     */
+    static RecipeBook load(String directory, MaterialCatalog catalog, List<String> errors) {
+        Scanner scan;
+        try {
+            scan = new Scanner(new File(Paths.get(directory, RECIPE_FILE).toString()));
+        } catch (FileNotFoundException e) {
+            errors.add("Missing info file \'" + RECIPE_FILE + "\'!");
+            return null;
+        }
+        // materials that aren't in the catalog get the ids after it
+        HashMap<String, Integer> ids = new HashMap<>();
+        List<String> materials = new ArrayList<>();
+        for (int id = 0; id < catalog.materialCount(); id++) {
+            ids.put(catalog.materialName(id), id);
+            materials.add(catalog.materialName(id));
+        }
+        HashMap<Integer, int[]> recipes = new HashMap<>();
+        int before = errors.size();
+        parseRecipes(scan, ids, materials, recipes, errors);
+
+        int[] yields = new int[materials.size()];
+        int[][] inputs = new int[materials.size()][];
+        int[][] amounts = new int[materials.size()][];
+        for (int id = 0; id < materials.size(); id++) {
+            int[] recipe = recipes.get(id);
+            int length = recipe == null ? 0 : (recipe.length - 1) / 2;
+            yields[id] = recipe == null ? 0 : recipe[0];
+            inputs[id] = new int[length];
+            amounts[id] = new int[length];
+            for (int i = 0; i < length; i++) {
+                inputs[id][i] = recipe[1 + 2 * i];
+                amounts[id][i] = recipe[2 + 2 * i];
+            }
+        }
+        int[] order = order(inputs, yields, materials, errors);
+        if (errors.size() > before) {
+            return null;
+        }
+        return new RecipeBook(catalog, materials.toArray(new String[0]), order, yields, inputs, amounts);
+    }
+
+
+    /**
+     * Reads every recipe in the recipe file
+     *
+     * @param scan      A Scanner over the recipe file
+     * @param ids       The ids given out to materials so far
+     * @param materials The name of every material given an id so far
+     * @param recipes   The map to add each recipe to, as the number made
+     *                  followed by the id and amount of every input
+     * @param errors    The list to add formatting errors to
+     */
+    private static void parseRecipes(Scanner scan, HashMap<String, Integer> ids, List<String> materials, HashMap<Integer, int[]> recipes, List<String> errors) {
+        int current = -1;
+        boolean inRecipe = false;
+        int lineNumber = 0;
+        while (scan.hasNextLine()) {
+            String line = scan.nextLine();
+            lineNumber++;
+            int comment = line.indexOf(HouseSpec.COMMENT);
+            String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            boolean header = entry.startsWith(RECIPE_NOTATOR);
+            String[] tokens = Room.fixSplit((header ? entry.substring(RECIPE_NOTATOR.length()) : entry).split(" "));
+            if (header) {
+                inRecipe = true;
+                current = -1;
+            } else if (!inRecipe) {
+                errors.add(location(lineNumber) + "material outside of any recipe");
+                continue;
+            }
+            if (tokens.length == 0) {
+                errors.add(location(lineNumber) + "missing material");
+                continue;
+            }
+            Integer amount = parseAmount(tokens, lineNumber, errors);
+            if (amount == null) {
+                continue;
+            }
+            int id = intern(tokens[0], ids, materials);
+            if (header) {
+                if (recipes.containsKey(id)) {
+                    errors.add(location(lineNumber) + "\'" + tokens[0] + "\' already has a recipe");
+                } else {
+                    current = id;
+                    recipes.put(current, new int[]{amount});
+                }
+            } else if (current >= 0) {
+                int[] recipe = Arrays.copyOf(recipes.get(current), recipes.get(current).length + 2);
+                recipe[recipe.length - 2] = id;
+                recipe[recipe.length - 1] = amount;
+                recipes.put(current, recipe);
+            }
+        }
+        scan.close();
+    }
+
+
+    /**
+     * Puts the crafted materials in order, so that every material comes
+     * before the materials it is made from. Materials whose recipes depend
+     * on each other are reported and left out
+     *
+     * @param inputs    The ids of the materials each recipe uses, indexed by material id
+     * @param yields    The number made by each recipe, or 0 if the material isn't crafted
+     * @param materials The name of every material
+     * @param errors    The list to add a cycle to
+     * @return The ids of every crafted material in order
+     */
+    private static int[] order(int[][] inputs, int[] yields, List<String> materials, List<String> errors) {
+        // the number of recipes that use each material
+        int[] users = new int[yields.length];
+        for (int[] recipe : inputs) {
+            for (int input : recipe) {
+                users[input]++;
+            }
+        }
+        int[] queue = new int[yields.length];
+        int head = 0;
+        int tail = 0;
+        for (int id = 0; id < yields.length; id++) {
+            if (users[id] == 0) {
+                queue[tail++] = id;
+            }
+        }
+        int[] order = new int[yields.length];
+        int size = 0;
+        while (head < tail) {
+            int id = queue[head++];
+            if (yields[id] > 0) {
+                order[size++] = id;
+            }
+            for (int input : inputs[id]) {
+                if (--users[input] == 0) {
+                    queue[tail++] = input;
+                }
+            }
+        }
+        if (tail < yields.length) {
+            // what is left is a cycle and everything made from it, so leave
+            // out the materials that nothing left is made from
+            int[] uses = new int[yields.length];
+            for (int id = 0; id < yields.length; id++) {
+                if (users[id] > 0) {
+                    for (int input : inputs[id]) {
+                        uses[id] += users[input] > 0 ? 1 : 0;
+                    }
+                }
+            }
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int id = 0; id < yields.length; id++) {
+                    if (users[id] > 0 && uses[id] == 0) {
+                        users[id] = 0;
+                        changed = true;
+                        for (int user = 0; user < yields.length; user++) {
+                            for (int input : inputs[user]) {
+                                if (input == id && users[user] > 0) {
+                                    uses[user]--;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            List<String> cycle = new ArrayList<>();
+            for (int id = 0; id < yields.length; id++) {
+                if (users[id] > 0) {
+                    cycle.add(materials.get(id));
+                }
+            }
+            errors.add(RECIPE_FILE + ": the recipes for " + String.join(", ", cycle) + " are made from each other");
+        }
+        return Arrays.copyOf(order, size);
+    }
+
+
+    /**
+     * Reads the amount from a tokenized line, which defaults to 1 if the
+     * line doesn't give one
+     *
+     * @return The amount, or null if it isn't a positive number
+     */
+    private static Integer parseAmount(String[] tokens, int lineNumber, List<String> errors) {
+        try {
+            int amount = tokens.length >= 2 ? Integer.parseInt(tokens[1]) : 1;
+            if (amount > 0) {
+                return amount;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        errors.add(location(lineNumber) + "bad amount \'" + tokens[1] + "\'");
+        return null;
+    }
+
+
+    /**
+     * Gets the id of a material, giving it the next free id if it hasn't
+     * been seen before
+     */
+    private static int intern(String material, HashMap<String, Integer> ids, List<String> materials) {
+        Integer id = ids.get(material);
+        if (id == null) {
+            id = materials.size();
+            ids.put(material, id);
+            materials.add(material);
+        }
+        return id;
+    }
+
+
+    /**
+     * @return The prefix of an error message for a line of the recipe file
+     */
+    private static String location(int lineNumber) {
+        return RECIPE_FILE + ":" + lineNumber + ": ";
+    }
+
+
+    /**
+     * Breaks down everything needed to build a plan into raw materials. Every
+     * crafted material is crafted in whole batches, once everything that
+     * needs it has been added up
+     *
+     * @param totals Everything needed to build the plan, indexed by the
+     *               material ids of the catalog
+     * @return The raw materials needed, and what has to be crafted from them
+     */
+    Bill expand(int[] totals) {
+        int[] need = Arrays.copyOf(totals, this.materials.length);
+        int[] crafted = new int[this.materials.length];
+        for (int id : this.order) {
+            if (need[id] <= 0) {
+                continue;
+            }
+            int batches = (need[id] + this.yields[id] - 1) / this.yields[id];
+            crafted[id] = batches * this.yields[id];
+            need[id] = 0;
+            for (int i = 0; i < this.inputs[id].length; i++) {
+                need[this.inputs[id][i]] += batches * this.amounts[id][i];
+            }
+        }
+        return new Bill(this, need, crafted);
+    }
+
+
+    /**
+     * @return The catalog the plans broken down are built from
+     */
+    MaterialCatalog getCatalog() {
+        return this.catalog;
+    }
+
+
+    /**
+     * @return The number of distinct materials in the catalog and the
+     * recipes, which is the length of every vector in a bill
+     */
+    int materialCount() {
+        return this.materials.length;
+    }
+
+
+    /**
+     * @param id The id of a material
+     * @return The name of the material
+     */
+    String materialName(int id) {
+        return this.materials[id];
+    }
+
+
+    /**
+     * @param id The id of a material
+     * @return The name of the material as it is shown to the user
+     */
+    String displayName(int id) {
+        return this.displayNames[id];
+    }
+
+
+    /**
+     * A plan broken down into raw materials
+     */
+    static final class Bill {
+
+        //fields
+        private final RecipeBook recipes;
+        private final int[] raw;
+        private final int[] crafted;
+
+
+        private Bill(RecipeBook recipes, int[] raw, int[] crafted) {
+            this.recipes = recipes;
+            this.raw = raw;
+            this.crafted = crafted;
+        }
+
+
+        /**
+         * @return The recipes the plan was broken down with, which name
+         * every material in the bill
+         */
+        RecipeBook recipes() {
+            return this.recipes;
+        }
+
+
+        /**
+         * @return The raw materials needed, indexed by material id
+         */
+        int[] raw() {
+            return this.raw;
+        }
+
+
+        /**
+         * @return The amount of each material to craft, indexed by material
+         * id, which can be more than is needed when a recipe makes several
+         */
+        int[] crafted() {
+            return this.crafted;
+        }
+    }
+}
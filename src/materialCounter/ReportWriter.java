@@ -0,0 +1,312 @@
+package materialCounter;
+
+import materialCounter.House.Expense;
+import materialCounter.House.Location;
+import materialCounter.Room.RoomType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes the human readable reports for houses and batches of plans
+ * straight to an Appendable, one line at a time. <br>
+ * Lines are indented by depth and every name is looked up from a table built
+ * once, so writing a report never builds up strings or compiles a regex
+ *
+ * @author Adam Cooper
+ */
+final class ReportWriter implements PlanWriter {
+
+    //fields
+    private final Appendable out;
+    private final MaterialCatalog catalog;
+    private int depth;
+    private static final String TAB = "    ";
+    private static final String SPACES = " ".repeat(64);
+
+
+    /**
+     * Constructor
+     *
+     * @param out Where to write the reports
+     */
+    ReportWriter(Appendable out) {
+        this(out, MaterialCatalog.get());
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param out     Where to write the reports
+     * @param catalog The catalog the material vectors written were built from
+     */
+    ReportWriter(Appendable out, MaterialCatalog catalog) {
+        this.out = out;
+        this.catalog = catalog;
+        this.depth = 0;
+    }
+
+
+    /**
+     * Writes everything needed to build a house, room by room, followed by
+     * its expenses and the totals for the whole house
+     *
+     * @param house The house to describe
+     * @throws IOException if the report can't be written
+     */
+    @Override
+    public void writeHouse(House house) throws IOException {
+        Location location = house.getLocation();
+        this.heading(Names.displayName(location));
+        this.depth++;
+        for (Room room : house.getRooms()) {
+            int[] totalMaterials = room.getTotalMaterialVector();
+            // in case there is nothing outside
+            if (isEmpty(totalMaterials)) {
+                continue;
+            }
+            RoomType type = room.getType();
+            this.heading(type.name().equals(location.name()) ? "Upgrade" : Names.displayName(type));
+            this.depth++;
+            for (Room.Furniture piece : room.getPieces()) {
+                this.indent().append(Names.displayName(piece.getType())).append(": ");
+                this.number(piece.amount()).append('\n');
+                this.depth++;
+                this.writeMaterials(piece.getMaterialVector());
+                this.depth--;
+            }
+            this.writeMaterials(room.getMaterialVector());
+            this.depth--;
+            this.heading("TOTALS");
+            this.depth++;
+            this.writeMaterials(totalMaterials);
+            this.depth--;
+        }
+
+        this.heading("EXPENSES");
+        this.depth++;
+        int width = 0;
+        for (Expense expense : Expense.values()) {
+            if (house.expenseCount(expense) > 0) {
+                width = Math.max(width, expense.name().length());
+            }
+        }
+        for (Expense expense : Expense.values()) {
+            int count = house.expenseCount(expense);
+            if (count <= 0) {
+                continue;
+            }
+            this.amount(expense.name(), expense.name(), count, width);
+            this.depth++;
+            this.amount(MaterialCatalog.GOLD, MaterialCatalog.GOLD, expense.totalCost(count), 0);
+            this.depth--;
+        }
+        this.heading(Names.displayName(location) + (location.isHomestead() ? " plot" : " deed"));
+        this.depth++;
+        this.amount(MaterialCatalog.GOLD, MaterialCatalog.GOLD, location.cost(), 0);
+        this.depth -= 3;
+
+        this.heading("TOTALS");
+        this.depth++;
+        int[] houseTotals = house.getTotalMaterialVector();
+        int gold = this.catalog.materialId(MaterialCatalog.GOLD);
+        width = Math.max(MaterialCatalog.GOLD.length(), this.width(houseTotals));
+        for (int id = 0; id < houseTotals.length; id++) {
+            // the gold for the deed or plot is always listed
+            if (houseTotals[id] != 0 || id == gold) {
+                this.amount(this.catalog.materialName(id), this.catalog.displayName(id), houseTotals[id], width);
+            }
+        }
+        this.depth--;
+    }
+
+
+    /**
+     * Writes the totals for one plan in a batch, without the breakdown by room
+     *
+     * @param number The number of the plan in the batch, counting from 1
+     * @param line   The line the plan was read from
+     * @param house  The house built for the plan
+     * @param totals Everything needed to build the house, indexed by material id
+     * @throws IOException if the report can't be written
+     */
+    @Override
+    public void writePlan(int number, int line, House house, int[] totals) throws IOException {
+        this.indent().append("Plan ");
+        this.number(number).append(" (line ");
+        this.number(line).append("): ").append(house.getSpec().toString()).append('\n');
+        this.depth++;
+        this.writeMaterials(totals);
+        this.depth--;
+    }
+
+
+    /**
+     * Writes the shopping list for a whole batch
+     *
+     * @param plans  The number of plans in the batch
+     * @param totals Everything needed to build every plan, indexed by material id
+     * @throws IOException if the report can't be written
+     */
+    @Override
+    public void writeShoppingList(int plans, int[] totals) throws IOException {
+        this.indent().append("SHOPPING LIST (");
+        this.number(plans).append(plans == 1 ? " plan):\n" : " plans):\n");
+        this.depth++;
+        this.writeMaterials(totals);
+        this.depth--;
+    }
+
+
+    /**
+     * Writes what is still missing from the player's inventory
+     *
+     * @param inventory The inventory, checked against a plan
+     * @throws IOException if the report can't be written
+     */
+    @Override
+    public void writeShortfall(Inventory inventory) throws IOException {
+        if (inventory.isComplete()) {
+            this.indent().append("SHORTFALL: nothing, everything is in the inventory\n");
+            return;
+        }
+        this.indent().append("SHORTFALL (");
+        this.number(inventory.missingMaterials()).append(inventory.missingMaterials() == 1 ? " material, " : " materials, ");
+        this.number(inventory.totalShortfall()).append(" items):\n");
+        this.depth++;
+        this.writeMaterials(inventory.shortfall());
+        this.depth--;
+    }
+
+
+    /**
+     * Writes the raw materials needed for a plan, followed by what has to be
+     * crafted from them
+     *
+     * @param bill The raw materials, and what is crafted from them
+     * @throws IOException if the report can't be written
+     */
+    @Override
+    public void writeRawMaterials(RecipeBook.Bill bill) throws IOException {
+        this.heading("RAW MATERIALS");
+        this.depth++;
+        this.writeMaterials(bill.raw(), bill.recipes());
+        this.depth--;
+        this.heading("CRAFTED");
+        this.depth++;
+        this.writeMaterials(bill.crafted(), bill.recipes());
+        this.depth--;
+    }
+
+
+    /**
+     * Writes an aligned line for every material in a vector of a bill, which
+     * can have materials the catalog doesn't
+     *
+     * @param vector  The amounts of each material, indexed by material id
+     * @param recipes The recipes that name every material
+     * @throws IOException if the report can't be written
+     */
+    private void writeMaterials(int[] vector, RecipeBook recipes) throws IOException {
+        int width = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                width = Math.max(width, recipes.materialName(id).length());
+            }
+        }
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.amount(recipes.materialName(id), recipes.displayName(id), vector[id], width);
+            }
+        }
+    }
+
+
+    /**
+     * Writes an aligned line for every material in a material vector
+     *
+     * @param vector The amounts of each material, indexed by material id
+     * @throws IOException if the report can't be written
+     */
+    void writeMaterials(int[] vector) throws IOException {
+        int width = this.width(vector);
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                this.amount(this.catalog.materialName(id), this.catalog.displayName(id), vector[id], width);
+            }
+        }
+    }
+
+
+    /**
+     * Writes a line in the form name: amount, padded so that every amount
+     * written with the same width lines up
+     *
+     * @param name        The name the padding is worked out from
+     * @param displayName The name to write
+     * @param amount      The amount to write
+     * @param width       The length of the longest name being lined up
+     * @throws IOException if the report can't be written
+     */
+    private void amount(String name, String displayName, long amount, int width) throws IOException {
+        this.indent().append(displayName).append(": ");
+        this.spaces(width - name.length());
+        this.number(amount).append('\n');
+    }
+
+
+    /**
+     * Writes a line introducing a section
+     */
+    private void heading(String title) throws IOException {
+        this.indent().append(title).append(":\n");
+    }
+
+
+    /**
+     * Writes the indent for the current depth
+     *
+     * @return The Appendable written to, to keep writing the line
+     */
+    private Appendable indent() throws IOException {
+        for (int i = 0; i < this.depth; i++) {
+            this.out.append(TAB);
+        }
+        return this.out;
+    }
+
+
+    private void spaces(int count) throws IOException {
+        for (; count > 0; count -= SPACES.length()) {
+            this.out.append(SPACES, 0, Math.min(count, SPACES.length()));
+        }
+    }
+
+
+    private Appendable number(long value) throws IOException {
+        return this.out.append(Long.toString(value));
+    }
+
+
+    /**
+     * @return The length of the longest name of any material in a vector
+     */
+    private int width(int[] vector) {
+        int width = 0;
+        for (int id = 0; id < vector.length; id++) {
+            if (vector[id] != 0) {
+                width = Math.max(width, this.catalog.materialName(id).length());
+            }
+        }
+        return width;
+    }
+
+
+    /**
+     * @return True if every amount in a vector is 0
+     */
+    private static boolean isEmpty(int[] vector) {
+        return Arrays.stream(vector).allMatch(amount -> amount == 0);
+    }
+}
@@ -1,12 +1,6 @@
 package materialCounter;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.Scanner;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Class to represent a room and its properties for a single house
@@ -58,30 +52,37 @@ public class Room {
     }
 
     private RoomType type;
-    private LinkedHashSet<Furniture> pieces;
-    private HashMap<String, Integer> roomMaterials;
-    private static final String ROOM_FILE = "rooms.info";
-    private static final String ROOM_TYPE_NOTATOR = "-";
-    private static final String ROOM_FMT_ERROR = "Improperly formatted room file \'" + ROOM_FILE + "\'!";
+    private final MaterialCatalog catalog;
+    // indexed by furniture type ordinal, with the order the pieces were added kept
+    // separately in a map so a piece can be dropped from it without a search
+    private Furniture[] piecesByType;
+    private LinkedHashMap<FurnitureType, Furniture> pieces;
+    private int[] roomMaterials;
+    private int[] totalMaterials;
 
     /**
      * Constructor
      *
-     * @param type The type of room being created
+     * @param type    The type of room being created
+     * @param catalog The catalog to read the room and its furniture from
      */
-    Room(RoomType type) {
+    Room(RoomType type, MaterialCatalog catalog) {
         this.type = type;
-        this.pieces = new LinkedHashSet<>();
-        this.roomMaterials = new HashMap<>();
+        this.catalog = catalog;
+        this.piecesByType = new Furniture[FurnitureType.values().length];
+        this.pieces = new LinkedHashMap<>();
         this.buildProperties();
+        Metrics.count(Metrics.Counter.ROOMS_BUILT);
     }
 
 
     /**
-     * @return The furniture pieces in this room
+     * @return The furniture pieces in this room in the order they were added,
+     * which can only be changed through addPiece and removePiece so the
+     * totals stay up to date
      */
-    LinkedHashSet<Furniture> getPieces() {
-        return this.pieces;
+    Collection<Furniture> getPieces() {
+        return Collections.unmodifiableCollection(this.pieces.values());
     }
 
 
@@ -90,74 +91,16 @@ public class Room {
      * needed to create a room
      */
     private void buildProperties() {
-        Scanner scan = null;
-        try {
-            scan = new Scanner(new File(Paths.get(getResourceDirectory(), ROOM_FILE).toString()));
-        } catch (FileNotFoundException e) {
-            System.err.println("Missing room info file \'" + ROOM_FILE + "\'!");
+        MaterialCatalog.RoomInfo info = this.catalog.room(this.type);
+        if (info == null) {
+            System.err.println("Give room type \'" + this.getName() + "\' not found in room file \'" + MaterialCatalog.ROOM_FILE + "\'!");
             System.exit(1);
         }
-        String line;
-        while (scan.hasNextLine()) {
-            line = scan.nextLine();
-            if (line.startsWith(ROOM_TYPE_NOTATOR)) {
-                // search for this room's type
-                if (line.trim().replaceFirst(ROOM_TYPE_NOTATOR, "").equals(this.getName())) {
-                    if (scan.hasNextLine()) {
-                        line = scan.nextLine();
-                    } else {
-                        return;
-                    }
-                    // read furniture and material for this room type
-                    while (scan.hasNextLine() && !line.startsWith(ROOM_TYPE_NOTATOR)) {
-                        if (line.contains(Furniture.FURNITURE_TYPE_NOTATOR)) {
-                            String[] tokens = line.trim().replaceFirst(Furniture.FURNITURE_TYPE_NOTATOR, " ").split(" ");
-                            tokens = fixSplit(tokens);
-                            try {
-                                // check if amount given
-                                String amt = "1";
-                                if (tokens.length >= 2) {
-                                    amt = tokens[1];
-                                }
-                                // add a new piece of furniture to the furniture list
-                                this.addPiece(new Furniture(FurnitureType.valueOf(tokens[0]), Integer.parseInt(amt)));
-                            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
-                                System.err.println(ROOM_FMT_ERROR);
-                                e.printStackTrace();
-                                System.exit(1);
-                            }
-                        } else { //add raw materials instead of furniture
-                            String amt = "1";
-                            String[] tokens = fixSplit(line.split(" "));
-                            if (tokens.length >= 2) {
-                                amt = tokens[1];
-                            }
-                            try {
-                                this.roomMaterials.put(tokens[0], Integer.parseInt(amt));
-                            } catch (NumberFormatException e) {
-                                System.err.println(ROOM_FMT_ERROR);
-                                e.printStackTrace();
-                                System.exit(1);
-                            }
-                        }
-                        line = scan.nextLine();
-                    }
-                    scan.close();
-                    return;
-                }
-            }
+        this.roomMaterials = info.materials();
+        this.totalMaterials = this.roomMaterials.clone();
+        for (Map.Entry<FurnitureType, Integer> piece : info.furniture()) {
+            this.addPiece(new Furniture(piece.getKey(), piece.getValue(), this.catalog));
         }
-        // if we got this far, the given room type was not in the file
-        System.err.println("Give room type \'" + this.getName() + "\' not found in room file \'" + ROOM_FILE + "\'!");
-        System.exit(1);
-    }
-
-
-    /**
-     * @return The directory with all resources in it as a string
-     */
-    private static String getResourceDirectory() {
-        return Paths.get(System.getProperty("user.dir"), "info").toString();
     }
 
 
@@ -192,6 +135,15 @@ public class Room {
      * and associated values of their respected counts
      */
     HashMap<String, Integer> getMaterials() {
+        return this.catalog.toMap(this.roomMaterials);
+    }
+
+
+    /**
+     * @return The amounts of this room's materials indexed by material id,
+     * which must not be modified
+     */
+    int[] getMaterialVector() {
         return this.roomMaterials;
     }
 
@@ -206,16 +158,20 @@ public class Room {
      * to the amount of each material needed
      */
     HashMap<String, Integer> getTotalMaterials() {
-        HashMap<String, Integer> totals = new HashMap<>();
-        for (String material : this.roomMaterials.keySet()) {
-            MaterialCounter.tally(material, this.roomMaterials.get(material), totals);
-        }
-        for (Furniture piece : this.pieces) {
-            for (String material : piece.materials()) {
-                MaterialCounter.tally(material, piece.getTotalMaterialCount(material), totals);
-            }
-        }
-        return totals;
+        return this.catalog.toMap(this.getTotalMaterialVector());
+    }
+
+
+    /**
+     * Gets the total amount of each material needed to build this room,
+     * including furniture. The totals are kept up to date as furniture is
+     * added and removed, so nothing is tallied here
+     *
+     * @return The amount of each material needed indexed by material id,
+     * which must not be modified
+     */
+    int[] getTotalMaterialVector() {
+        return this.totalMaterials;
     }
 
 
@@ -235,20 +191,24 @@ public class Room {
     }
 
 
+    /**
+     * @return The catalog this room was built from
+     */
+    MaterialCatalog getCatalog() {
+        return this.catalog;
+    }
+
+
     /**
      * Gets a furniture piece by name
      *
      * @param furnitureName The name of the piece
-     * @param room          The room to add the furniture to
+     * @param catalog       The catalog to read the recipe from
      * @return A new furniture object of the requested type, or null if type DNE
      */
-    static Furniture getFurnitureByName(String furnitureName, Room room) {
-        for (FurnitureType item : FurnitureType.values()) {
-            if (item.name().equals(furnitureName)) {
-                return room.new Furniture(item, 1);
-            }
-        }
-        return null;
+    static Furniture getFurnitureByName(String furnitureName, MaterialCatalog catalog) {
+        FurnitureType type = Names.furniture(furnitureName);
+        return type == null ? null : new Furniture(type, 1, catalog);
     }
 
 
@@ -256,15 +216,12 @@ public class Room {
      * Creates a new Room object of the given type
      *
      * @param roomName The type of room to create
+     * @param catalog  The catalog to read the room and its furniture from
      * @return A new Room of type roomName or null if type roomName DNE
      */
-    static Room getRoomByName(String roomName) {
-        for (RoomType room : RoomType.values()) {
-            if (room.name().equals(roomName)) {
-                return new Room(room);
-            }
-        }
-        return null;
+    static Room getRoomByName(String roomName, MaterialCatalog catalog) {
+        RoomType type = Names.room(roomName);
+        return type == null ? null : new Room(type, catalog);
     }
 
 
@@ -275,19 +232,40 @@ public class Room {
      * @param piece The furniture to add
      */
     void addPiece(Furniture piece) {
-        if (this.pieces.contains(piece)) {
-            for (Furniture old : this.pieces) {
-                if (old.equals(piece)) {
-                    old.amount += piece.amount();
-                    return;
-                }
-            }
+        MaterialCounter.tally(piece.getMaterialVector(), piece.amount(), this.totalMaterials);
+        Furniture old = this.piecesByType[piece.getType().ordinal()];
+        if (old != null) {
+            old.amount += piece.amount();
         } else {
-            this.pieces.add(piece);
+            this.piecesByType[piece.getType().ordinal()] = piece;
+            this.pieces.put(piece.getType(), piece);
         }
     }
 
 
+    /**
+     * Removes pieces of furniture from this room, dropping the furniture
+     * altogether once none of it is left
+     *
+     * @param piece The furniture to remove, with the amount of it to remove
+     * @return True if this room had that furniture, false otherwise
+     */
+    boolean removePiece(Furniture piece) {
+        Furniture old = this.piecesByType[piece.getType().ordinal()];
+        if (old == null) {
+            return false;
+        }
+        int removed = Math.min(old.amount(), piece.amount());
+        old.amount -= removed;
+        MaterialCounter.tally(old.getMaterialVector(), -removed, this.totalMaterials);
+        if (old.amount() == 0) {
+            this.piecesByType[piece.getType().ordinal()] = null;
+            this.pieces.remove(old.getType());
+        }
+        return true;
+    }
+
+
     /**
      * Tells if a furniture group of a particular type has already been
      * added to this room
@@ -296,80 +274,41 @@ public class Room {
      * @return True if the type has already been added, false otherwise
      */
     public boolean containsFurnitureType(FurnitureType type) {
-        for (Furniture piece : this.pieces) {
-            if (piece.getType().equals(type)) {
-                return true;
-            }
-        }
-        return false;
+        return this.piecesByType[type.ordinal()] != null;
     }
 
 
     /**
-     * Represents a single type of furniture and its
-     * properties for this room
+     * Represents a single type of furniture and how many pieces of it a room
+     * needs. The materials come from the recipe for the type, which is
+     * shared by every piece of furniture of that type in every room
      */
-    public class Furniture {
+    public static class Furniture {
 
         //fields
-        private FurnitureType type;
+        private final FurnitureType type;
         private int amount;
-        private HashMap<String, Integer> materials;
-        private static final String FURNITURE_FILE = "furniture.info";
-        private static final String FURNITURE_TYPE_NOTATOR = "~";
+        private final MaterialCatalog catalog;
+        private final MaterialCatalog.Recipe recipe;
 
         /**
          * Constructor <br>
-         * Builds a furniture group for this particular room with specified properties
+         * Builds a furniture group with specified properties
          *
-         * @param type The type of furniture this is
-         * @throws IllegalArgumentException if initialized with repeated type
+         * @param type    The type of furniture this is
+         * @param amount  The amount of pieces in this group
+         * @param catalog The catalog to read the recipe from
          */
-        Furniture(FurnitureType type, int amount) throws IllegalArgumentException {
+        Furniture(FurnitureType type, int amount, MaterialCatalog catalog) {
             this.type = type;
             this.amount = amount;
-            this.materials = new HashMap<>();
-            this.buildMaterialsList();
-        }
-
-        /**
-         * Builds the list of materials for this furniture's type
-         */
-        private void buildMaterialsList() {
-            Scanner scan = null;
-            try {
-                scan = new Scanner(new File(Paths.get(getResourceDirectory(), FURNITURE_FILE).toString()));
-            } catch (FileNotFoundException e) {
-                System.err.println("Furniture material file \"" + FURNITURE_FILE + "\" missing!");
+            this.catalog = catalog;
+            this.recipe = catalog.recipe(type);
+            if (this.recipe == null) {
+                System.err.println("Furniture type " + this.getName() + " not found in file \'" + MaterialCatalog.FURNITURE_FILE + "\'!");
                 System.exit(1);
             }
-            String line;
-            while (scan.hasNextLine()) {
-                line = scan.nextLine();
-                if (line.contains(FURNITURE_TYPE_NOTATOR)) {
-                    // search for this group's furniture type
-                    if (line.replaceAll(FURNITURE_TYPE_NOTATOR, "").trim().equals(this.type.name())) {
-                        line = scan.nextLine();
-                        // gather materials below
-                        while (scan.hasNextLine() && !line.contains(FURNITURE_TYPE_NOTATOR)) {
-                            String[] tokens = fixSplit(line.split(" "));
-                            try {
-                                MaterialCounter.tally(tokens[0], Integer.parseInt(tokens[1]), this.materials);
-                            } catch (ClassCastException | NumberFormatException e) {
-                                System.err.println("Improperly formatted file!");
-                                e.printStackTrace();
-                                System.exit(1);
-                            }
-                            line = scan.nextLine();
-                        }
-                        scan.close();
-                        return;
-                    }
-                }
-            }
-            // if we got this far, the furniture type wasn't found in the file
-            System.err.println("Furniture type " + this.getName() + " not found in file \'" + FURNITURE_FILE + "\'!");
-            System.exit(1);
+            Metrics.count(Metrics.Counter.FURNITURE_BUILT);
         }
 
         /**
@@ -402,7 +341,16 @@ public class Room {
          * needed to build a single piece of this furniture
          */
         int getMaterialCount(String material) {
-            return this.materials.getOrDefault(material, -1);
+            int amount = this.recipe.amount(this.catalog.materialId(material));
+            return amount != 0 ? amount : -1;
+        }
+
+        /**
+         * @return The amount of each material needed to build a single piece
+         * of this furniture indexed by material id, which must not be modified
+         */
+        int[] getMaterialVector() {
+            return this.recipe.vector();
         }
 
         /**
@@ -423,7 +371,7 @@ public class Room {
          * type of furniture
          */
         Set<String> materials() {
-            return this.materials.keySet();
+            return this.catalog.toMap(this.recipe.vector()).keySet();
         }
 
         /**
@@ -431,9 +379,14 @@ public class Room {
          */
         @Override
         public boolean equals(Object o) {
-            if (!o.getClass().getName().equals(this.getClass().getName()))
+            if (!(o instanceof Furniture))
                 return false;
-            return this.getName().equals(((Furniture) o).getName());
+            return this.type == ((Furniture) o).type;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.type.hashCode();
         }
     }
 }